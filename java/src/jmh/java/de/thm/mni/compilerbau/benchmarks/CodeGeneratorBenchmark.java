@@ -0,0 +1,27 @@
+package de.thm.mni.compilerbau.benchmarks;
+
+import de.thm.mni.compilerbau.phases._06_codegen.CodeGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the code generation, i.e. the LastVisitor and the formatting of the instructions by the CodePrinter.
+ * The generated code is discarded.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodeGeneratorBenchmark {
+    @Benchmark
+    public int generateCode(CompiledProgram compiled) throws IOException {
+        final CodeGenerator generator = new CodeGenerator(compiled.options, new PrintWriter(Writer.nullWriter()));
+        generator.generateCode(compiled.program, compiled.table);
+        return generator.emittedInstructions();
+    }
+}
@@ -0,0 +1,69 @@
+package de.thm.mni.compilerbau.benchmarks;
+
+import de.thm.mni.compilerbau.CommandLineOptions;
+import de.thm.mni.compilerbau.absyn.Program;
+import de.thm.mni.compilerbau.phases._01_scanner.Scanner;
+import de.thm.mni.compilerbau.phases._02_03_parser.Parser;
+import de.thm.mni.compilerbau.phases._04a_tablebuild.TableBuilder;
+import de.thm.mni.compilerbau.phases._04b_semant.ProcedureBodyChecker;
+import de.thm.mni.compilerbau.phases._05_varalloc.VarAllocator;
+import de.thm.mni.compilerbau.table.IdentifierPool;
+import de.thm.mni.compilerbau.table.SymbolTable;
+import java_cup.runtime.DefaultSymbolFactory;
+import java_cup.runtime.SymbolFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.Writer;
+
+/**
+ * A workload together with the results of all compiler phases, computed once per benchmark run.
+ * Each benchmark takes the inputs of the phase it measures from here.
+ */
+@State(Scope.Benchmark)
+public class CompiledProgram {
+    @SuppressWarnings("deprecation")
+    private static final SymbolFactory symbolFactory = new DefaultSymbolFactory();
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Workload workload;
+
+    public final CommandLineOptions options = new CommandLineOptions();
+    public String source;
+    public Program program;
+    public SymbolTable table;
+
+    @Setup(Level.Trial)
+    public void compile() throws Exception {
+        source = workload.source();
+        program = parse();
+        table = buildSymbolTable();
+        new ProcedureBodyChecker(options).checkProcedures(program, table);
+        new VarAllocator(options, nullListing()).allocVars(program, table);
+    }
+
+    /**
+     * @return A writer swallowing the listing of the phases.
+     */
+    static PrintWriter nullListing() {
+        return new PrintWriter(Writer.nullWriter());
+    }
+
+    Scanner scanner() {
+        final Scanner scanner = new Scanner(new StringReader(source));
+        scanner.options = options;
+        scanner.identifiers = new IdentifierPool();
+        return scanner;
+    }
+
+    Program parse() throws Exception {
+        final Parser parser = new Parser(scanner(), symbolFactory);
+        parser.options = options;
+        return (Program) parser.parse().value;
+    }
+
+    SymbolTable buildSymbolTable() {
+        return new TableBuilder(options, nullListing()).buildSymbolTable(program);
+    }
+}
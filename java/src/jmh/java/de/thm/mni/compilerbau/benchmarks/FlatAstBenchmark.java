@@ -0,0 +1,68 @@
+package de.thm.mni.compilerbau.benchmarks;
+
+import de.thm.mni.compilerbau.absyn.Program;
+import de.thm.mni.compilerbau.absyn.flat.FlatAst;
+import de.thm.mni.compilerbau.absyn.visitor.AstPrinter;
+import de.thm.mni.compilerbau.absyn.visitor.NodeCounter;
+import de.thm.mni.compilerbau.phases._01_scanner.TokenBuffer;
+import de.thm.mni.compilerbau.phases._02_03_parser.DescentParser;
+import de.thm.mni.compilerbau.table.IdentifierPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link FlatAst} with the tree of node objects: Parsing into either representation, and a traversal of
+ * the whole tree, which visits the nodes by following the children of each node.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlatAstBenchmark {
+    @State(Scope.Benchmark)
+    public static class FlatProgram {
+        public FlatAst ast;
+
+        /**
+         * Flattens the program and checks that both ways of creating a flat tree give back the same tree of node
+         * objects.
+         */
+        @Setup(Level.Trial)
+        public void flatten(CompiledProgram compiled) {
+            ast = FlatAst.of(compiled.program);
+            final String expected = AstPrinter.toString(compiled.program);
+            final FlatAst parsed = FlatAst.parse(TokenBuffer.scan(compiled.source, compiled.options, new IdentifierPool()));
+            if (!AstPrinter.toString(ast.toNode(0)).equals(expected) || !AstPrinter.toString(parsed.toNode(0)).equals(expected)) {
+                throw new IllegalStateException("The flat tree does not match the tree of node objects");
+            }
+        }
+    }
+
+    @Benchmark
+    public Program parseObjects(CompiledProgram compiled) {
+        return new DescentParser(TokenBuffer.scan(compiled.source, compiled.options, new IdentifierPool())).parse();
+    }
+
+    @Benchmark
+    public FlatAst parseFlat(CompiledProgram compiled) {
+        return FlatAst.parse(TokenBuffer.scan(compiled.source, compiled.options, new IdentifierPool()));
+    }
+
+    @Benchmark
+    public long traverseObjects(CompiledProgram compiled) {
+        return NodeCounter.count(compiled.program);
+    }
+
+    @Benchmark
+    public long traverseFlat(FlatProgram flat) {
+        return count(flat.ast, 0);
+    }
+
+    private static long count(FlatAst ast, int node) {
+        long count = 1;
+        for (int child = node + 1; child < ast.end(node); child = ast.end(child)) count += count(ast, child);
+        return count;
+    }
+}
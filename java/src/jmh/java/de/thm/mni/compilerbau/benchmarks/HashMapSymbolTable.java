@@ -0,0 +1,34 @@
+package de.thm.mni.compilerbau.benchmarks;
+
+import de.thm.mni.compilerbau.table.Entry;
+import de.thm.mni.compilerbau.table.Identifier;
+import de.thm.mni.compilerbau.table.SymbolTable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The lookup structure of the former {@link SymbolTable}: A {@link HashMap} per scope, searched recursively through the
+ * outer scopes. Kept as the baseline of the {@link SymbolTableBenchmark}. Like before, the names are hashed and
+ * compared by their text.
+ */
+class HashMapSymbolTable {
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final HashMapSymbolTable upperLevel;
+
+    HashMapSymbolTable(HashMapSymbolTable upperLevel) {
+        this.upperLevel = upperLevel;
+    }
+
+    void enter(Identifier name, Entry entry) {
+        this.entries.putIfAbsent(name.toString(), entry);
+    }
+
+    Entry lookup(Identifier name) {
+        Entry entry = this.entries.get(name.toString());
+
+        if (entry != null) return entry;
+        if (upperLevel != null) return upperLevel.lookup(name);
+        return null;
+    }
+}
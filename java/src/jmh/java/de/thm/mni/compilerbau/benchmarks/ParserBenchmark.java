@@ -0,0 +1,76 @@
+package de.thm.mni.compilerbau.benchmarks;
+
+import de.thm.mni.compilerbau.CommandLineOptions;
+import de.thm.mni.compilerbau.absyn.Program;
+import de.thm.mni.compilerbau.phases._01_scanner.Scanner;
+import de.thm.mni.compilerbau.phases._01_scanner.TokenBuffer;
+import de.thm.mni.compilerbau.phases._02_03_parser.DescentParser;
+import de.thm.mni.compilerbau.phases._02_03_parser.Parser;
+import de.thm.mni.compilerbau.table.IdentifierPool;
+import java_cup.runtime.DefaultSymbolFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Parser#parse()} and {@link DescentParser#parse()} including the construction of the abstract syntax
+ * tree. Both parsers include the time of scanning: The CUP parser pulls its tokens from the scanner, the descent parser
+ * is measured together with the {@link TokenBuffer} it reads from.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+    /**
+     * A program with a single procedure made of a very long list of statements.
+     * The time per statement should not depend on the length of the list.
+     */
+    @State(Scope.Benchmark)
+    public static class LongProcedure {
+        @Param({"25000", "50000", "100000", "200000"})
+        public int statements;
+
+        public final CommandLineOptions options = new CommandLineOptions();
+        public String source;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            source = ProgramGenerator.generate(ProgramGenerator.Settings.DEFAULT
+                    .withProcedures(1)
+                    .withStatementsPerProcedure(statements));
+        }
+    }
+
+    @Benchmark
+    public Program parse(CompiledProgram compiled) throws Exception {
+        return compiled.parse();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Program parseLongProcedure(LongProcedure procedure) throws Exception {
+        final Scanner scanner = new Scanner(new StringReader(procedure.source));
+        scanner.options = procedure.options;
+        scanner.identifiers = new IdentifierPool();
+        @SuppressWarnings("deprecation")
+        final Parser parser = new Parser(scanner, new DefaultSymbolFactory());
+        parser.options = procedure.options;
+        return (Program) parser.parse().value;
+    }
+
+    @Benchmark
+    public Program parseDescent(CompiledProgram compiled) {
+        return new DescentParser(TokenBuffer.scan(compiled.source, compiled.options, new IdentifierPool())).parse();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Program parseLongProcedureDescent(LongProcedure procedure) {
+        return new DescentParser(TokenBuffer.scan(procedure.source, procedure.options, new IdentifierPool())).parse();
+    }
+}
@@ -0,0 +1,21 @@
+package de.thm.mni.compilerbau.benchmarks;
+
+import de.thm.mni.compilerbau.phases._04b_semant.ProcedureBodyChecker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the semantic analysis of all procedure bodies by the {@link ProcedureBodyChecker}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcedureBodyCheckerBenchmark {
+    @Benchmark
+    public void checkProcedures(CompiledProgram compiled) {
+        new ProcedureBodyChecker(compiled.options).checkProcedures(compiled.program, compiled.table);
+    }
+}
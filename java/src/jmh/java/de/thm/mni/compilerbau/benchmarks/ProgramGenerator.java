@@ -0,0 +1,397 @@
+package de.thm.mni.compilerbau.benchmarks;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.System.exit;
+
+/**
+ * Generates random but semantically valid SPL programs of arbitrary size.
+ * <p>
+ * The shape of the programs is controlled by {@link Settings}, the output is fully determined by the settings
+ * including the seed. All procedures share one signature, which consists of a reference to the array type
+ * 'grid' (if arrays are enabled), a reference to an integer and integer value parameters. Their bodies consist of
+ * assignments, if and while statements, blocks and calls of printi, plus the calls of other procedures given by the
+ * fan-out. Every generated program is accepted by all phases of the compiler.
+ * <p>
+ * The generator can be run from the command line to write a program to a file:
+ * <pre>
+ * java -cp target/spl-0.1-benchmarks.jar de.thm.mni.compilerbau.benchmarks.ProgramGenerator --procedures=1000 big.spl
+ * </pre>
+ */
+public final class ProgramGenerator {
+    /**
+     * The knobs of the generator.
+     * With the default settings, every procedure takes about seven lines per statement.
+     *
+     * @param procedures             The number of procedures besides main.
+     * @param statementsPerProcedure The number of statements in each procedure body, not counting calls and nested statements.
+     * @param expressionDepth        The maximum nesting depth of arithmetic expressions.
+     * @param arrayNesting           The number of dimensions of the array type 'grid'. 0 disables arrays.
+     * @param callFanOut             The number of procedure calls in every procedure.
+     * @param parameters             The number of parameters of every procedure.
+     * @param seed                   The seed of the random number generator.
+     */
+    public record Settings(int procedures,
+                           int statementsPerProcedure,
+                           int expressionDepth,
+                           int arrayNesting,
+                           int callFanOut,
+                           int parameters,
+                           long seed) {
+        public static final Settings DEFAULT = new Settings(100, 20, 3, 2, 2, 4, 42);
+
+        public Settings {
+            if (procedures < 0 || statementsPerProcedure < 0 || expressionDepth < 0 || arrayNesting < 0 || callFanOut < 0 || parameters < 0) {
+                throw new IllegalArgumentException("The settings of the generator must not be negative");
+            }
+        }
+
+        public Settings withProcedures(int procedures) {
+            return new Settings(procedures, statementsPerProcedure, expressionDepth, arrayNesting, callFanOut, parameters, seed);
+        }
+
+        public Settings withStatementsPerProcedure(int statementsPerProcedure) {
+            return new Settings(procedures, statementsPerProcedure, expressionDepth, arrayNesting, callFanOut, parameters, seed);
+        }
+
+        public Settings withExpressionDepth(int expressionDepth) {
+            return new Settings(procedures, statementsPerProcedure, expressionDepth, arrayNesting, callFanOut, parameters, seed);
+        }
+
+        public Settings withArrayNesting(int arrayNesting) {
+            return new Settings(procedures, statementsPerProcedure, expressionDepth, arrayNesting, callFanOut, parameters, seed);
+        }
+
+        public Settings withCallFanOut(int callFanOut) {
+            return new Settings(procedures, statementsPerProcedure, expressionDepth, arrayNesting, callFanOut, parameters, seed);
+        }
+
+        public Settings withParameters(int parameters) {
+            return new Settings(procedures, statementsPerProcedure, expressionDepth, arrayNesting, callFanOut, parameters, seed);
+        }
+
+        public Settings withSeed(long seed) {
+            return new Settings(procedures, statementsPerProcedure, expressionDepth, arrayNesting, callFanOut, parameters, seed);
+        }
+    }
+
+    /**
+     * Statements nested deeper than this are always assignments or calls of printi.
+     */
+    private static final int MAX_STATEMENT_NESTING = 3;
+
+    private static final String[] ARITHMETIC_OPERATORS = {"+", "-", "*", "/"};
+    private static final String[] COMPARISON_OPERATORS = {"=", "#", "<", "<=", ">", ">="};
+
+    /**
+     * The variables visible in the procedure currently generated.
+     */
+    private record Scope(List<String> integers, List<String> grids) {
+    }
+
+    private final Settings settings;
+    private final PrintWriter out;
+    private final Random random;
+
+    private ProgramGenerator(Settings settings, PrintWriter out) {
+        this.settings = settings;
+        this.out = out;
+        this.random = new Random(settings.seed());
+    }
+
+    /**
+     * @param settings The shape of the program.
+     * @return The source code of the program.
+     */
+    public static String generate(Settings settings) {
+        final StringWriter source = new StringWriter();
+        generate(settings, new PrintWriter(source));
+        return source.toString();
+    }
+
+    /**
+     * Writes a program to the given writer. Large programs are never held in memory completely.
+     *
+     * @param settings The shape of the program.
+     * @param out      The writer to write the source code to.
+     */
+    public static void generate(Settings settings, PrintWriter out) {
+        new ProgramGenerator(settings, out).program();
+        out.flush();
+    }
+
+    private void program() {
+        if (settings.arrayNesting() > 0) {
+            out.print("type grid = ");
+            for (int i = 0; i < settings.arrayNesting(); i++) out.printf("array [%d] of ", 4 + i);
+            out.println("int;");
+            out.println();
+        }
+
+        for (int i = 0; i < settings.procedures(); i++) procedure(i);
+
+        final Scope scope = localScope();
+        out.println("proc main() {");
+        localVariables();
+        for (int i = 0; i < settings.callFanOut() && settings.procedures() > 0; i++) {
+            indent(1);
+            call(random.nextInt(settings.procedures()), scope);
+        }
+        out.println("  printi(t);");
+        out.println("  printc('\\n');");
+        out.println("}");
+    }
+
+    private void procedure(int index) {
+        final Scope scope = localScope();
+        final List<String> parameters = new ArrayList<>();
+        for (int i = 0; i < settings.parameters(); i++) {
+            if (i == 0 && settings.arrayNesting() > 0) {
+                parameters.add("ref g: grid");
+                scope.grids.add("g");
+            } else if (parameters.stream().noneMatch(p -> p.startsWith("ref r"))) {
+                parameters.add("ref r: int");
+                scope.integers.add("r");
+            } else {
+                parameters.add("a" + i + ": int");
+                scope.integers.add("a" + i);
+            }
+        }
+
+        out.printf("proc p%d(%s) {\n", index, String.join(", ", parameters));
+        localVariables();
+
+        // Calls are spread over the body at random positions between the other statements.
+        final int statements = settings.statementsPerProcedure() + settings.callFanOut();
+        int callsLeft = settings.procedures() > 1 ? settings.callFanOut() : 0;
+        int othersLeft = settings.statementsPerProcedure();
+        for (int i = 0; i < statements; i++) {
+            if (callsLeft > 0 && random.nextInt(callsLeft + othersLeft) < callsLeft) {
+                int callee = random.nextInt(settings.procedures() - 1);
+                if (callee >= index) callee++;
+                indent(1);
+                call(callee, scope);
+                callsLeft--;
+            } else if (othersLeft > 0) {
+                statement(1, scope);
+                othersLeft--;
+            }
+        }
+        out.println("}");
+        out.println();
+    }
+
+    private Scope localScope() {
+        final Scope scope = new Scope(new ArrayList<>(List.of("i", "j", "t")), new ArrayList<>());
+        if (settings.arrayNesting() > 0) scope.grids.add("l");
+        return scope;
+    }
+
+    private void localVariables() {
+        out.println("  var i: int;");
+        out.println("  var j: int;");
+        out.println("  var t: int;");
+        if (settings.arrayNesting() > 0) out.println("  var l: grid;");
+    }
+
+    private void statement(int level, Scope scope) {
+        final int kind = level > MAX_STATEMENT_NESTING ? random.nextInt(10) : random.nextInt(20);
+        indent(level);
+        if (kind < 9) {
+            out.printf("%s := %s;\n", integerVariable(scope), expression(settings.expressionDepth(), scope));
+        } else if (kind < 10) {
+            out.printf("printi(%s);\n", expression(settings.expressionDepth(), scope));
+        } else if (kind < 14) {
+            out.printf("if (%s)", condition(scope));
+            body(level, scope);
+            if (random.nextBoolean()) {
+                indent(level);
+                out.print("else");
+                body(level, scope);
+            }
+        } else if (kind < 18) {
+            final String counter = random.nextBoolean() ? "i" : "j";
+            out.printf("while (%s < %s) {\n", counter, expression(Math.min(settings.expressionDepth(), 1), scope));
+            final int count = 1 + random.nextInt(3);
+            for (int i = 0; i < count; i++) statement(level + 1, scope);
+            indent(level + 1);
+            out.printf("%s := %s + 1;\n", counter, counter);
+            indent(level);
+            out.println("}");
+        } else {
+            out.println("{");
+            final int count = 1 + random.nextInt(3);
+            for (int i = 0; i < count; i++) statement(level + 1, scope);
+            indent(level);
+            out.println("}");
+        }
+    }
+
+    /**
+     * Prints the then or else part of an if statement, which is either a block or a single statement.
+     */
+    private void body(int level, Scope scope) {
+        if (random.nextBoolean()) {
+            out.println();
+            statement(level + 1, scope);
+            return;
+        }
+        out.println(" {");
+        final int count = 1 + random.nextInt(3);
+        for (int i = 0; i < count; i++) statement(level + 1, scope);
+        indent(level);
+        out.println("}");
+    }
+
+    private void call(int callee, Scope scope) {
+        final List<String> arguments = new ArrayList<>();
+        boolean referenceSeen = false;
+        for (int i = 0; i < settings.parameters(); i++) {
+            if (i == 0 && settings.arrayNesting() > 0) {
+                arguments.add(pick(scope.grids));
+            } else if (!referenceSeen) {
+                arguments.add(pick(scope.integers.subList(0, 3))); // Only locals, parameters might be values.
+                referenceSeen = true;
+            } else {
+                arguments.add(expression(Math.min(settings.expressionDepth(), 2), scope));
+            }
+        }
+        out.printf("p%d(%s);\n", callee, String.join(", ", arguments));
+    }
+
+    private String condition(Scope scope) {
+        final int depth = Math.min(settings.expressionDepth(), 2);
+        return String.format("%s %s %s", expression(depth, scope), pick(COMPARISON_OPERATORS), expression(depth, scope));
+    }
+
+    /**
+     * @return An integer expression whose operator tree is at most depth levels deep.
+     */
+    private String expression(int depth, Scope scope) {
+        if (depth == 0 || random.nextInt(4) == 0) return operand(scope);
+        return String.format("(%s %s %s)",
+                expression(depth - 1, scope),
+                pick(ARITHMETIC_OPERATORS),
+                expression(random.nextInt(depth), scope));
+    }
+
+    private String operand(Scope scope) {
+        return switch (random.nextInt(6)) {
+            case 0 -> Integer.toString(random.nextInt(1000));
+            case 1 -> String.format("0x%X", random.nextInt(256));
+            case 2 -> String.format("'%c'", (char) ('a' + random.nextInt(26)));
+            case 3 -> scope.grids.isEmpty() ? pick(scope.integers) : arrayElement(scope);
+            default -> pick(scope.integers);
+        };
+    }
+
+    /**
+     * @return An assignable variable of type int, either a scalar or an element of a grid.
+     */
+    private String integerVariable(Scope scope) {
+        if (!scope.grids.isEmpty() && random.nextInt(3) == 0) return arrayElement(scope);
+        return pick(scope.integers);
+    }
+
+    private String arrayElement(Scope scope) {
+        final StringBuilder element = new StringBuilder(pick(scope.grids));
+        for (int i = 0; i < settings.arrayNesting(); i++) {
+            element.append('[');
+            if (random.nextBoolean()) element.append(random.nextInt(4));
+            else element.append(pick(scope.integers));
+            element.append(']');
+        }
+        return element.toString();
+    }
+
+    private void indent(int level) {
+        for (int i = 0; i < level; i++) out.print("  ");
+    }
+
+    private String pick(List<String> choices) {
+        return choices.get(random.nextInt(choices.size()));
+    }
+
+    private String pick(String[] choices) {
+        return choices[random.nextInt(choices.length)];
+    }
+
+    private static void usageError(String format, Object... args) {
+        System.err.printf("Usage error: " + format, args);
+        System.err.println();
+        showUsage(System.err);
+        exit(1);
+    }
+
+    private static void showUsage(PrintStream out) {
+        final Settings defaults = Settings.DEFAULT;
+        out.println("Usage: ProgramGenerator [OPTION] [OUTPUT_FILE]");
+        out.println();
+        out.println("Writes a random SPL program to the output file or to stdout if no file is given.");
+        out.println("Options:");
+        out.printf("  --procedures=N   The number of procedures besides main (default: %d).\n", defaults.procedures());
+        out.printf("  --statements=N   The number of top-level statements per procedure (default: %d).\n", defaults.statementsPerProcedure());
+        out.printf("  --depth=N        The maximum depth of arithmetic expressions (default: %d).\n", defaults.expressionDepth());
+        out.printf("  --nesting=N      The number of dimensions of the array type, 0 for no arrays (default: %d).\n", defaults.arrayNesting());
+        out.printf("  --fanOut=N       The number of procedure calls per procedure (default: %d).\n", defaults.callFanOut());
+        out.printf("  --parameters=N   The number of parameters per procedure (default: %d).\n", defaults.parameters());
+        out.printf("  --seed=N         The seed of the random number generator (default: %d).\n", defaults.seed());
+        out.println("  --help           Show this help.");
+    }
+
+    private static int parseCount(String option, String value) {
+        try {
+            final int count = Integer.parseInt(value);
+            if (count >= 0) return count;
+        } catch (NumberFormatException ignored) {
+        }
+        usageError("Option '%s' expects a non-negative number!", option);
+        return 0;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Settings settings = Settings.DEFAULT;
+        String outFilename = "";
+
+        for (String arg : args) {
+            final int equals = arg.indexOf('=');
+            final String option = equals < 0 ? arg : arg.substring(0, equals);
+            final String value = equals < 0 ? "" : arg.substring(equals + 1);
+            switch (option) {
+                case "--procedures" -> settings = settings.withProcedures(parseCount(option, value));
+                case "--statements" -> settings = settings.withStatementsPerProcedure(parseCount(option, value));
+                case "--depth" -> settings = settings.withExpressionDepth(parseCount(option, value));
+                case "--nesting" -> settings = settings.withArrayNesting(parseCount(option, value));
+                case "--fanOut" -> settings = settings.withCallFanOut(parseCount(option, value));
+                case "--parameters" -> settings = settings.withParameters(parseCount(option, value));
+                case "--help" -> {
+                    showUsage(System.out);
+                    exit(0);
+                }
+                case "--seed" -> {
+                    try {
+                        settings = settings.withSeed(Long.parseLong(value));
+                    } catch (NumberFormatException e) {
+                        usageError("Option '--seed' expects a number!");
+                    }
+                }
+                default -> {
+                    if (arg.startsWith("--")) usageError("Unknown option '%s'!", arg);
+                    if (!outFilename.isEmpty()) usageError("Too many positional arguments!");
+                    outFilename = arg;
+                }
+            }
+        }
+
+        if (outFilename.isEmpty()) {
+            generate(settings, new PrintWriter(new OutputStreamWriter(System.out)));
+        } else {
+            try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(outFilename)))) {
+                generate(settings, out);
+            }
+        }
+    }
+}
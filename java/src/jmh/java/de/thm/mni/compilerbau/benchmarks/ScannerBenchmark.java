@@ -0,0 +1,38 @@
+package de.thm.mni.compilerbau.benchmarks;
+
+import de.thm.mni.compilerbau.phases._01_scanner.Scanner;
+import de.thm.mni.compilerbau.phases._01_scanner.TokenBuffer;
+import de.thm.mni.compilerbau.phases._02_03_parser.Sym;
+import de.thm.mni.compilerbau.table.IdentifierPool;
+import java_cup.runtime.Symbol;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures scanning the whole input, once with a {@link Scanner#next_token()} loop creating a symbol per token and
+ * once into a {@link TokenBuffer}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScannerBenchmark {
+    @Benchmark
+    public void scan(CompiledProgram compiled, Blackhole blackhole) throws IOException {
+        final Scanner scanner = compiled.scanner();
+        Symbol token;
+        do {
+            token = scanner.next_token();
+            blackhole.consume(token);
+        } while (token.sym != Sym.EOF);
+    }
+
+    @Benchmark
+    public TokenBuffer scanIntoBuffer(CompiledProgram compiled) {
+        return TokenBuffer.scan(compiled.source, compiled.options, new IdentifierPool());
+    }
+}
@@ -0,0 +1,130 @@
+package de.thm.mni.compilerbau.benchmarks;
+
+import de.thm.mni.compilerbau.absyn.*;
+import de.thm.mni.compilerbau.absyn.visitor.NodeCounter;
+import de.thm.mni.compilerbau.table.Entry;
+import de.thm.mni.compilerbau.table.Identifier;
+import de.thm.mni.compilerbau.table.ProcedureEntry;
+import de.thm.mni.compilerbau.table.SymbolTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link SymbolTable} with the {@link HashMapSymbolTable} it replaced, replaying the symbol table traffic
+ * of the semantic analysis: Entering all global symbols, then for every procedure entering its parameters and
+ * variables into a local table and looking up every name used in the procedure.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SymbolTableBenchmark {
+    /**
+     * The names and entries of a scope and the names looked up in it.
+     */
+    private record ScopeSymbols(List<Identifier> names, List<Entry> entries, List<Identifier> uses) {
+        ScopeSymbols() {
+            this(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        }
+
+        void add(Identifier name, Entry entry) {
+            names.add(name);
+            entries.add(entry);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ProgramSymbols {
+        private final ScopeSymbols global = new ScopeSymbols();
+        private final List<ScopeSymbols> procedures = new ArrayList<>();
+
+        @Setup(Level.Trial)
+        public void collect(CompiledProgram compiled) {
+            for (GlobalDeclaration declaration : compiled.program.declarations) {
+                global.add(declaration.name, compiled.table.lookup(declaration.name));
+            }
+            for (GlobalDeclaration declaration : compiled.program.declarations) {
+                if (!(declaration instanceof ProcedureDeclaration procedure)) continue;
+                final SymbolTable localTable = ((ProcedureEntry) compiled.table.lookup(procedure.name)).localTable;
+                final ScopeSymbols scope = new ScopeSymbols();
+                for (ParameterDeclaration parameter : procedure.parameters) {
+                    scope.add(parameter.name, localTable.lookup(parameter.name));
+                }
+                for (VariableDeclaration variable : procedure.variables) {
+                    scope.add(variable.name, localTable.lookup(variable.name));
+                }
+                procedure.accept(new UseCollector(scope.uses()));
+                procedures.add(scope);
+
+                // Enter the predefined procedures called, so they are found like in the real global table.
+                for (Identifier use : scope.uses()) {
+                    if (!scope.names().contains(use) && !global.names().contains(use)) {
+                        global.add(use, compiled.table.lookup(use));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the names of all variables, types and procedures used in a subtree.
+     */
+    private static class UseCollector extends NodeCounter {
+        private final List<Identifier> uses;
+
+        UseCollector(List<Identifier> uses) {
+            this.uses = uses;
+        }
+
+        @Override
+        public void visit(NamedTypeExpression namedTypeExpression) {
+            uses.add(namedTypeExpression.name);
+        }
+
+        @Override
+        public void visit(NamedVariable namedVariable) {
+            uses.add(namedVariable.name);
+        }
+
+        @Override
+        public void visit(CallStatement callStatement) {
+            uses.add(callStatement.procedureName);
+            super.visit(callStatement);
+        }
+    }
+
+    @Benchmark
+    public void symbolTable(ProgramSymbols symbols, Blackhole blackhole) {
+        final SymbolTable globalTable = new SymbolTable();
+        enterAll(symbols.global, globalTable);
+        for (ScopeSymbols procedure : symbols.procedures) {
+            final SymbolTable localTable = new SymbolTable(globalTable);
+            enterAll(procedure, localTable);
+            for (Identifier use : procedure.uses()) blackhole.consume(localTable.lookup(use));
+        }
+    }
+
+    @Benchmark
+    public void hashMapSymbolTable(ProgramSymbols symbols, Blackhole blackhole) {
+        final HashMapSymbolTable globalTable = new HashMapSymbolTable(null);
+        enterAll(symbols.global, globalTable);
+        for (ScopeSymbols procedure : symbols.procedures) {
+            final HashMapSymbolTable localTable = new HashMapSymbolTable(globalTable);
+            enterAll(procedure, localTable);
+            for (Identifier use : procedure.uses()) blackhole.consume(localTable.lookup(use));
+        }
+    }
+
+    private static void enterAll(ScopeSymbols scope, SymbolTable table) {
+        for (int i = 0; i < scope.names().size(); i++) table.enter(scope.names().get(i), scope.entries().get(i));
+    }
+
+    private static void enterAll(ScopeSymbols scope, HashMapSymbolTable table) {
+        for (int i = 0; i < scope.names().size(); i++) table.enter(scope.names().get(i), scope.entries().get(i));
+    }
+}
@@ -0,0 +1,23 @@
+package de.thm.mni.compilerbau.benchmarks;
+
+import de.thm.mni.compilerbau.phases._04a_tablebuild.TableBuilder;
+import de.thm.mni.compilerbau.table.SymbolTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of the symbol tables by the {@link TableBuilder}, i.e. the sequential signature pass
+ * and the parallel construction of the local tables, starting with a freshly initialized global table.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableBuilderBenchmark {
+    @Benchmark
+    public SymbolTable buildSymbolTable(CompiledProgram compiled) {
+        return compiled.buildSymbolTable();
+    }
+}
@@ -0,0 +1,42 @@
+package de.thm.mni.compilerbau.benchmarks;
+
+import de.thm.mni.compilerbau.phases._04b_semant.ProcedureBodyChecker;
+import de.thm.mni.compilerbau.phases._05_varalloc.VarAllocator;
+import de.thm.mni.compilerbau.table.SymbolTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the variable allocation like the compiler runs it, i.e. both passes for all procedures in parallel and the
+ * formatting of the allocation into a discarded listing.
+ * <p>
+ * The passes skip procedures whose stack layout is already known, so every invocation needs a symbol table that has
+ * not been allocated yet. The procedure bodies are checked against this table as well, because the second pass reads
+ * the sizes of the called procedures from the entries the semantic analysis bound to the calls. Building and checking
+ * are not part of the measured time, but add some noise to the results of small workloads. The allocation rate
+ * reported by '-prof gc' includes the memory allocated by both.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VarAllocatorBenchmark {
+    @State(Scope.Thread)
+    public static class FreshTable {
+        SymbolTable table;
+
+        @Setup(Level.Invocation)
+        public void build(CompiledProgram compiled) {
+            table = compiled.buildSymbolTable();
+            new ProcedureBodyChecker(compiled.options).checkProcedures(compiled.program, table);
+        }
+    }
+
+    @Benchmark
+    public SymbolTable allocVars(CompiledProgram compiled, FreshTable fresh) {
+        new VarAllocator(compiled.options, CompiledProgram.nullListing()).allocVars(compiled.program, fresh.table);
+        return fresh.table;
+    }
+}
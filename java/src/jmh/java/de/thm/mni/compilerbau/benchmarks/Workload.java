@@ -0,0 +1,24 @@
+package de.thm.mni.compilerbau.benchmarks;
+
+/**
+ * The SPL programs the benchmarks are run on, produced by the {@link ProgramGenerator} from a fixed seed.
+ * They differ only in the number of procedures.
+ */
+public enum Workload {
+    SMALL(10),
+    MEDIUM(100),
+    LARGE(1_000);
+
+    private final ProgramGenerator.Settings settings;
+
+    Workload(int procedures) {
+        this.settings = ProgramGenerator.Settings.DEFAULT.withProcedures(procedures);
+    }
+
+    /**
+     * @return The source code of the program.
+     */
+    public String source() {
+        return ProgramGenerator.generate(settings);
+    }
+}
@@ -0,0 +1,151 @@
+package de.thm.mni.compilerbau;
+
+import de.thm.mni.compilerbau.utils.SplError;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compiles many SPL files within a single JVM.
+ * <p>
+ * Every input file runs through all compiler phases on a fixed-size pool of worker threads. The code of each input is
+ * written next to it with the extension '.s'. Errors are collected per file, so a single broken input does not abort
+ * the whole run.
+ */
+class BatchCompiler {
+    /**
+     * The outcome of compiling a single input file.
+     *
+     * @param input      The compiled file.
+     * @param error      The error that stopped the compilation or null if the file was compiled successfully.
+     * @param statistics The statistics of the compilation or null if none were recorded.
+     */
+    private record Result(Path input, Exception error, CompilationStatistics statistics) {
+    }
+
+    private final CommandLineOptions options;
+    private final Compiler compiler;
+    private final CompilationCache cache;
+
+    BatchCompiler(CommandLineOptions options) throws IOException {
+        this.options = options;
+        // Listings of concurrently running compilations would be interleaved, so they are not recorded at all.
+        this.compiler = new Compiler(CompilerOptions.of(options), false, options.statisticsEnabled);
+        this.cache = Main.openCache(options);
+    }
+
+    /**
+     * Compiles all input files and reports errors and throughput to stderr.
+     *
+     * @return The exit code of the batch run. 0 if all files were compiled successfully, 1 otherwise.
+     */
+    int run() throws IOException, InterruptedException {
+        final List<Path> inputs = collectInputs();
+        final long start = System.nanoTime();
+
+        final ExecutorService workers = Executors.newFixedThreadPool(options.jobs);
+        final List<Future<Result>> pending = new ArrayList<>(inputs.size());
+        try {
+            for (Path input : inputs) pending.add(workers.submit(() -> compile(input)));
+
+            int failed = 0;
+            CompilationStatistics statistics = null;
+            for (Future<Result> future : pending) {
+                final Result result;
+                try {
+                    result = future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+                if (result.error != null) {
+                    report(result);
+                    failed++;
+                }
+                if (result.statistics != null) {
+                    if (statistics == null) statistics = result.statistics;
+                    else statistics.add(result.statistics);
+                }
+            }
+
+            final double seconds = (System.nanoTime() - start) / 1e9;
+            System.err.printf("Compiled %d files (%d failed) in %.3f s using %d threads, %.1f files/s\n",
+                    inputs.size(), failed, seconds, options.jobs, inputs.size() / Math.max(seconds, 1e-9));
+            if (statistics != null) Main.reportStatistics(options, statistics);
+            if (cache != null) cache.evict();
+            return failed == 0 ? 0 : 1;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Expands the positional arguments to the list of files to compile.
+     * Directories are searched recursively for files with the extension '.spl'.
+     */
+    private List<Path> collectInputs() throws IOException {
+        final List<Path> inputs = new ArrayList<>();
+        for (String name : options.batchInputs) {
+            final Path path = Path.of(name);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> files = Files.walk(path)) {
+                    inputs.addAll(files
+                            .filter(p -> Files.isRegularFile(p) && p.getFileName().toString().endsWith(".spl"))
+                            .sorted()
+                            .collect(Collectors.toList()));
+                }
+            } else {
+                inputs.add(path);
+            }
+        }
+        return inputs;
+    }
+
+    private static Path outputPath(Path input) {
+        final String name = input.getFileName().toString();
+        final String base = name.endsWith(".spl") ? name.substring(0, name.length() - ".spl".length()) : name;
+        return input.resolveSibling(base + ".s");
+    }
+
+    /**
+     * Runs all compiler phases for a single file.
+     */
+    private Result compile(Path input) {
+        try {
+            final String source = Files.readString(input);
+            final String cacheKey = cache != null ? CompilationCache.key(compiler.options(), false, source) : null;
+
+            CompilationResult result = cache != null ? cache.lookup(cacheKey).orElse(null) : null;
+            if (result == null) {
+                result = compiler.compile(source);
+                if (cache != null) cache.store(cacheKey, result);
+            }
+            if (!result.successful()) return new Result(input, result.diagnostics().get(0), result.statistics());
+
+            Files.writeString(outputPath(input), result.assembly());
+            return new Result(input, null, result.statistics());
+        } catch (Exception e) {
+            return new Result(input, e, null);
+        }
+    }
+
+    private static void report(Result result) {
+        System.err.printf("%s: ", result.input);
+        if (result.error instanceof SplError error) {
+            if (error.line() >= 0) System.err.printf("Line %d, Column %d: ", error.line(), error.column());
+            System.err.println(error.getMessage());
+        } else if (result.error instanceof IOException) {
+            System.err.println("Cannot read input or write output: " + result.error.getMessage());
+        } else {
+            System.err.println("An error occurred: " + result.error);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package de.thm.mni.compilerbau;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
 
 import static java.lang.System.exit;
 
@@ -18,8 +20,22 @@ public class CommandLineOptions {
     public boolean recordsEnabled = false;
     public boolean valueSemanticsEnabled = false;
     public boolean compoundLiteralsEnabled = false;
+    public boolean descentParserEnabled = false;
+    public boolean batchMode = false;
+    public boolean serverMode = false;
+    public boolean clientMode = false;
+    public String socketPath = "";
+    public boolean statisticsEnabled = false;
+    public String statisticsFilename = "";
+    public boolean cacheEnabled = false;
+    public String cacheDirectory = "";
+    public int cacheSize = 256;
+    public boolean incrementalEnabled = false;
+    public String incrementalStateFilename = "";
+    public int jobs = Runtime.getRuntime().availableProcessors();
     public String inFilename = "";
     public String outFilename = "";
+    public final List<String> batchInputs = new ArrayList<>();
 
     private static void usageError(String format, Object... args) {
         System.err.printf("Usage error: " + format, args);
@@ -30,6 +46,8 @@ public class CommandLineOptions {
 
     private static void showUsage(PrintStream out) {
         out.println("Usage: 'java -jar spl.jar' [OPTION] INPUT_FILE [OUTPUT_FILE]");
+        out.println("       'java -jar spl.jar' --batch [OPTION] INPUT_FILE_OR_DIRECTORY...");
+        out.println("       'java -jar spl.jar' --server [--socket=PATH] [--jobs=N]");
         out.println();
         out.println("Executes all compiler phases up to (and including) the specified one.");
         out.println("If no flag is specified, all phases are run and code is written to the output file.");
@@ -48,6 +66,22 @@ public class CommandLineOptions {
         out.println("  --records           Enable support for records.");
         out.println("  --valueSemantics    Enable value semantics.");
         out.println("  --compoundLiterals  Enable array and record literals.");
+        out.println("  --descentParser     Parse with the hand-written recursive descent parser instead of the one generated by CUP.");
+        out.println("  --batch             Compile every given file and every .spl file in the given directories.");
+        out.println("                      The code for each input is written next to it with the extension .s.");
+        out.println("  --jobs=N            Use N worker threads in batch and server mode (default: number of cores).");
+        out.println("  --server            Keep a warmed up compiler running and serve compile requests on a local socket.");
+        out.println("  --connect           Let a running compile server do the work. Compiles locally if no server is running.");
+        out.println("  --socket=PATH       The socket used by --server and --connect (default: spl-compiler.sock in $XDG_RUNTIME_DIR,");
+        out.println("                      or a directory only accessible by the current user in the temporary directory).");
+        out.println("  --stats             Print the time, CPU time and memory spent in each phase to stderr.");
+        out.println("  --stats=FILE        Write these statistics to FILE as JSON instead.");
+        out.println("  --cache             Reuse the code of earlier compilations of the same input with the same options.");
+        out.println("  --cache=DIR         Use DIR as cache directory (default: ~/.cache/spl-compiler).");
+        out.println("  --cacheSize=N       Evict the least recently used entries when the cache exceeds N MiB (default: 256).");
+        out.println("  --incremental       Only analyze and generate code for the procedures changed since the last compilation");
+        out.println("                      of the same input file. The state is kept in the cache directory.");
+        out.println("  --incremental=FILE  Keep the state of incremental compilations in FILE instead.");
         out.println("  --help              Show this help.");
     }
 
@@ -60,10 +94,36 @@ public class CommandLineOptions {
         if (compoundLiteralsEnabled && !valueSemanticsEnabled) {
             usageError("--compoundLiterals requires --valueSemantics to be set");
         }
+        if (batchMode && phaseOption != null) {
+            usageError("--batch can not be combined with a phase option");
+        }
+        if (serverMode && (batchMode || clientMode)) {
+            usageError("--server can not be combined with --batch or --connect");
+        }
+        if (statisticsEnabled && (serverMode || clientMode)) {
+            usageError("--stats can not be combined with --server or --connect");
+        }
+        if (cacheEnabled && (phaseOption != null || serverMode)) {
+            usageError("--cache can not be combined with a phase option or --server");
+        }
+        if (incrementalEnabled && (phaseOption != null || batchMode || serverMode || clientMode)) {
+            usageError("--incremental can not be combined with a phase option, --batch, --server or --connect");
+        }
+    }
+
+    private static int parseCount(String name, String value) {
+        try {
+            int count = Integer.parseInt(value);
+            if (count > 0) return count;
+        } catch (NumberFormatException ignored) {
+        }
+        usageError("Option '%s' expects a positive number!", name);
+        return 0;
     }
 
     static CommandLineOptions parse(String[] args) {
         CommandLineOptions options = new CommandLineOptions();
+        List<String> positional = new ArrayList<>();
 
         for (String name : args) {
             switch (name) {
@@ -81,15 +141,35 @@ public class CommandLineOptions {
                 case "--records" -> options.recordsEnabled = true;
                 case "--valueSemantics" -> options.valueSemanticsEnabled = true;
                 case "--compoundLiterals" -> options.compoundLiteralsEnabled = true;
+                case "--descentParser" -> options.descentParserEnabled = true;
+                case "--batch" -> options.batchMode = true;
+                case "--server" -> options.serverMode = true;
+                case "--connect" -> options.clientMode = true;
+                case "--stats" -> options.statisticsEnabled = true;
+                case "--cache" -> options.cacheEnabled = true;
+                case "--incremental" -> options.incrementalEnabled = true;
                 case "--help" -> {
                     showUsage(System.out);
                     exit(0);
                 }
                 default -> {
-                    if (!name.startsWith("--")) {
-                        if (options.inFilename.isEmpty()) options.inFilename = name;
-                        else if (options.outFilename.isEmpty()) options.outFilename = name;
-                        else usageError("Too many positional arguments!");
+                    if (name.startsWith("--jobs=")) {
+                        options.jobs = parseCount("--jobs", name.substring("--jobs=".length()));
+                    } else if (name.startsWith("--socket=")) {
+                        options.socketPath = name.substring("--socket=".length());
+                    } else if (name.startsWith("--cache=")) {
+                        options.cacheEnabled = true;
+                        options.cacheDirectory = name.substring("--cache=".length());
+                    } else if (name.startsWith("--cacheSize=")) {
+                        options.cacheSize = parseCount("--cacheSize", name.substring("--cacheSize=".length()));
+                    } else if (name.startsWith("--incremental=")) {
+                        options.incrementalEnabled = true;
+                        options.incrementalStateFilename = name.substring("--incremental=".length());
+                    } else if (name.startsWith("--stats=")) {
+                        options.statisticsEnabled = true;
+                        options.statisticsFilename = name.substring("--stats=".length());
+                    } else if (!name.startsWith("--")) {
+                        positional.add(name);
                     } else {
                         usageError("Unknown option '%s'!", name);
                     }
@@ -97,7 +177,17 @@ public class CommandLineOptions {
             }
         }
 
-        if (options.inFilename.isEmpty()) usageError("No input file!");
+        if (options.serverMode) {
+            if (!positional.isEmpty()) usageError("Too many positional arguments!");
+        } else if (options.batchMode) {
+            options.batchInputs.addAll(positional);
+            if (options.batchInputs.isEmpty()) usageError("No input file!");
+        } else {
+            if (positional.size() > 2) usageError("Too many positional arguments!");
+            if (positional.size() > 0) options.inFilename = positional.get(0);
+            if (positional.size() > 1) options.outFilename = positional.get(1);
+            if (options.inFilename.isEmpty()) usageError("No input file!");
+        }
         options.checkOptionsIntegrity();
 
         return options;
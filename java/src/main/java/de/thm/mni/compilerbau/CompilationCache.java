@@ -0,0 +1,231 @@
+package de.thm.mni.compilerbau;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * A content-addressed cache of compilation results on disk, shared by all compiler processes of a user.
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the source text, the {@link CompilerOptions} and a fingerprint of the
+ * compiler itself, so a changed compiler never reuses results of an older build. Only successful compilations that
+ * ran all phases are stored, an entry holds the listing and the generated code.
+ * <p>
+ * Entries are written to a temporary file first and atomically renamed into place, so readers either see a complete
+ * entry or none at all. A hit refreshes the modification time of the entry, which is used to evict the least recently
+ * used entries once the cache grows beyond its size limit. Eviction is serialized between processes by an exclusive
+ * lock on the file 'lock' in the cache directory. Entries deleted by a concurrent eviction are treated as misses.
+ */
+final class CompilationCache {
+    private static final int MAGIC = 0x53504c43; // "SPLC"
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String LOCK_FILE = "lock";
+
+    /**
+     * Temporary files older than this are left over from crashed processes and removed during eviction.
+     */
+    private static final Duration STALE_TEMP_FILE_AGE = Duration.ofHours(1);
+
+    private static String compilerFingerprint = null;
+
+    private final Path directory;
+    private final long maxBytes;
+
+    /**
+     * @param directory The directory holding the entries. It is created if it does not exist.
+     * @param maxBytes  The size the entries may take up in total before the least recently used ones are evicted.
+     */
+    CompilationCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * @return The cache directory used unless another one is given with --cache=DIR.
+     */
+    static Path defaultDirectory() {
+        final String cacheHome = System.getenv("XDG_CACHE_HOME");
+        final Path base = cacheHome != null && !cacheHome.isEmpty() ? Path.of(cacheHome) : Path.of(System.getProperty("user.home"), ".cache");
+        return base.resolve("spl-compiler");
+    }
+
+    /**
+     * Computes the key of a compilation.
+     *
+     * @param options The options of the compilation.
+     * @param listing Whether the listing of the phases is recorded. Entries without listing can not serve compilations
+     *                that print it.
+     * @param source  The source code of the program.
+     * @return The hexadecimal SHA-256 hash of the inputs of the compilation.
+     */
+    static String key(CompilerOptions options, boolean listing, String source) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, compilerFingerprint());
+        update(digest, options.toString());
+        update(digest, listing ? "listing" : "");
+        update(digest, source);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String part) {
+        final byte[] bytes = part.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    /**
+     * Identifies the build of the compiler by the location, size and modification time of its jar file or, when run
+     * from a class directory, of all class files in it.
+     */
+    static synchronized String compilerFingerprint() {
+        if (compilerFingerprint != null) return compilerFingerprint;
+
+        final StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append(Objects.toString(Compiler.class.getPackage().getImplementationVersion(), "dev"));
+        try {
+            final Path code = Path.of(Compiler.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            fingerprint.append('|').append(code.toAbsolutePath());
+            if (Files.isDirectory(code)) {
+                try (Stream<Path> files = Files.walk(code)) {
+                    files.filter(Files::isRegularFile).sorted().forEach(file -> appendFile(fingerprint, file));
+                }
+            } else {
+                appendFile(fingerprint, code);
+            }
+        } catch (IOException | URISyntaxException | UncheckedIOException | SecurityException | NullPointerException e) {
+            // Without knowing the build, results of another build could be reused. Use a key nobody else gets.
+            fingerprint.append('|').append(UUID.randomUUID());
+        }
+        compilerFingerprint = fingerprint.toString();
+        return compilerFingerprint;
+    }
+
+    private static void appendFile(StringBuilder fingerprint, Path file) {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            fingerprint.append('|').append(file.getFileName())
+                    .append(':').append(attributes.size())
+                    .append(':').append(attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path entryPath(String key) {
+        return directory.resolve(key + ENTRY_SUFFIX);
+    }
+
+    /**
+     * Looks up the result of a compilation.
+     *
+     * @param key The key computed by {@link #key(CompilerOptions, boolean, String)}.
+     * @return The cached listing and code or empty if the compilation is not cached or the entry can not be read.
+     */
+    Optional<CompilationResult> lookup(String key) {
+        final Path entry = entryPath(key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            if (in.readInt() != MAGIC) return Optional.empty();
+            final String listing = CompileProtocol.readString(in);
+            final String assembly = CompileProtocol.readString(in);
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+            return Optional.of(new CompilationResult(null, null, listing, assembly, List.of(), Map.of(), null));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the result of a successful compilation that ran all phases. Other results are ignored, as are errors
+     * while writing the entry: The cache is only an optimization.
+     *
+     * @param key    The key computed by {@link #key(CompilerOptions, boolean, String)}.
+     * @param result The result to store.
+     */
+    void store(String key, CompilationResult result) {
+        if (!result.successful() || result.assembly() == null) return;
+
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                CompileProtocol.writeString(out, result.listing());
+                CompileProtocol.writeString(out, result.assembly());
+            }
+            Files.move(temp, entryPath(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            temp = null;
+        } catch (IOException ignored) {
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache fits into its size limit again.
+     * Does nothing if another process is evicting at the same time.
+     */
+    synchronized void evict() {
+        try (FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = lockChannel.tryLock()) {
+            if (lock == null) return;
+
+            record Entry(Path path, long size, FileTime lastUsed) {
+            }
+            final List<Entry> entries = new ArrayList<>();
+            final Instant staleBefore = Instant.now().minus(STALE_TEMP_FILE_AGE);
+            long totalSize = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    final String name = file.getFileName().toString();
+                    try {
+                        final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        if (name.endsWith(ENTRY_SUFFIX)) {
+                            entries.add(new Entry(file, attributes.size(), attributes.lastModifiedTime()));
+                            totalSize += attributes.size();
+                        } else if (name.endsWith(TEMP_SUFFIX) && attributes.lastModifiedTime().toInstant().isBefore(staleBefore)) {
+                            Files.deleteIfExists(file);
+                        }
+                    } catch (NoSuchFileException ignored) {
+                        // Renamed or deleted by another process in the meantime.
+                    }
+                }
+            }
+            if (totalSize <= maxBytes) return;
+
+            entries.sort(Comparator.comparing(Entry::lastUsed));
+            for (Entry entry : entries) {
+                if (totalSize <= maxBytes) break;
+                Files.deleteIfExists(entry.path);
+                totalSize -= entry.size;
+            }
+        } catch (IOException | OverlappingFileLockException ignored) {
+        }
+    }
+}
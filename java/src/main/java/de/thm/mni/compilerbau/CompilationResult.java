@@ -0,0 +1,36 @@
+package de.thm.mni.compilerbau;
+
+import de.thm.mni.compilerbau.absyn.Program;
+import de.thm.mni.compilerbau.table.SymbolTable;
+import de.thm.mni.compilerbau.utils.SplError;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of a single run of the {@link Compiler}.
+ * Values of phases that did not run (because of an error or the selected phase option) are null.
+ *
+ * @param program     The abstract syntax tree of the program. It is not built if only the syntax is checked.
+ * @param table       The global symbol table.
+ * @param listing     Everything the compiler phases print for the user, e.g. tokens, the AST or the symbol tables.
+ * @param assembly    The generated ECO32 assembler code.
+ * @param diagnostics The errors found in the program. Empty if the compilation was successful.
+ * @param timings     The wall time spent in each phase that was run.
+ * @param statistics  The resources used and the sizes counted by the phases or null if statistics are not enabled.
+ */
+public record CompilationResult(Program program,
+                                SymbolTable table,
+                                String listing,
+                                String assembly,
+                                List<SplError> diagnostics,
+                                Map<Compiler.Phase, Duration> timings,
+                                CompilationStatistics statistics) {
+    /**
+     * @return true if no errors were found.
+     */
+    public boolean successful() {
+        return diagnostics.isEmpty();
+    }
+}
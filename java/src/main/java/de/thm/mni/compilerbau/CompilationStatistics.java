@@ -0,0 +1,162 @@
+package de.thm.mni.compilerbau;
+
+import de.thm.mni.compilerbau.utils.UsageMeter;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Resource usage and size counters of one or more compilations, recorded with --stats.
+ * <p>
+ * CPU time and allocated bytes of a phase are measured with a {@link UsageMeter}. They cover the thread running the
+ * {@link Compiler} as well as the threads of the common pool working on the phase, so they may exceed the wall clock
+ * time of a phase that runs in parallel. Counters of phases that did not run are -1.
+ */
+public final class CompilationStatistics {
+    /**
+     * The resources used by a single phase.
+     *
+     * @param wallNanos      The elapsed wall clock time in nanoseconds.
+     * @param cpuNanos       The CPU time in nanoseconds or -1 if the JVM can not measure it.
+     * @param allocatedBytes The number of bytes allocated on the heap or -1 if the JVM can not measure it.
+     */
+    public record PhaseStatistics(long wallNanos, long cpuNanos, long allocatedBytes) {
+        PhaseStatistics plus(PhaseStatistics other) {
+            return new PhaseStatistics(wallNanos + other.wallNanos,
+                    cpuNanos < 0 || other.cpuNanos < 0 ? -1 : cpuNanos + other.cpuNanos,
+                    allocatedBytes < 0 || other.allocatedBytes < 0 ? -1 : allocatedBytes + other.allocatedBytes);
+        }
+    }
+
+    private final Map<Compiler.Phase, PhaseStatistics> phases = new EnumMap<>(Compiler.Phase.class);
+    private int compilations = 1;
+    private long tokens = -1;
+    private long astNodes = -1;
+    private long symbolTableEntries = -1;
+    private long instructions = -1;
+
+    void record(Compiler.Phase phase, PhaseStatistics statistics) {
+        phases.merge(phase, statistics, PhaseStatistics::plus);
+    }
+
+    void setTokens(long tokens) {
+        this.tokens = tokens;
+    }
+
+    void setAstNodes(long astNodes) {
+        this.astNodes = astNodes;
+    }
+
+    void setSymbolTableEntries(long symbolTableEntries) {
+        this.symbolTableEntries = symbolTableEntries;
+    }
+
+    void setInstructions(long instructions) {
+        this.instructions = instructions;
+    }
+
+    /**
+     * Adds the statistics of another compilation to these.
+     */
+    void add(CompilationStatistics other) {
+        other.phases.forEach(this::record);
+        compilations += other.compilations;
+        tokens = sum(tokens, other.tokens);
+        astNodes = sum(astNodes, other.astNodes);
+        symbolTableEntries = sum(symbolTableEntries, other.symbolTableEntries);
+        instructions = sum(instructions, other.instructions);
+    }
+
+    private static long sum(long a, long b) {
+        if (a < 0) return b;
+        if (b < 0) return a;
+        return a + b;
+    }
+
+    public Map<Compiler.Phase, PhaseStatistics> phases() {
+        return Collections.unmodifiableMap(phases);
+    }
+
+    public int compilations() {
+        return compilations;
+    }
+
+    public long tokens() {
+        return tokens;
+    }
+
+    public long astNodes() {
+        return astNodes;
+    }
+
+    public long symbolTableEntries() {
+        return symbolTableEntries;
+    }
+
+    public long instructions() {
+        return instructions;
+    }
+
+    /**
+     * @return A human-readable table of the statistics.
+     */
+    public String toTable() {
+        final StringBuilder table = new StringBuilder();
+        table.append(String.format("%-8s %12s %12s %16s\n", "Phase", "Wall [ms]", "CPU [ms]", "Allocated [KiB]"));
+
+        PhaseStatistics total = new PhaseStatistics(0, 0, 0);
+        for (Map.Entry<Compiler.Phase, PhaseStatistics> entry : phases.entrySet()) {
+            table.append(formatRow(entry.getKey().name(), entry.getValue()));
+            total = total.plus(entry.getValue());
+        }
+        table.append(formatRow("Total", total));
+        table.append('\n');
+
+        if (compilations != 1) table.append(String.format("%-22s %d\n", "Compilations", compilations));
+        table.append(String.format("%-22s %s\n", "Tokens", formatCount(tokens)));
+        table.append(String.format("%-22s %s\n", "AST nodes", formatCount(astNodes)));
+        table.append(String.format("%-22s %s\n", "Symbol table entries", formatCount(symbolTableEntries)));
+        table.append(String.format("%-22s %s\n", "Instructions", formatCount(instructions)));
+        return table.toString();
+    }
+
+    private static String formatRow(String name, PhaseStatistics statistics) {
+        return String.format("%-8s %12.3f %12s %16s\n",
+                name,
+                statistics.wallNanos / 1e6,
+                statistics.cpuNanos < 0 ? "-" : String.format("%.3f", statistics.cpuNanos / 1e6),
+                statistics.allocatedBytes < 0 ? "-" : String.format("%.1f", statistics.allocatedBytes / 1024.0));
+    }
+
+    private static String formatCount(long count) {
+        return count < 0 ? "-" : Long.toString(count);
+    }
+
+    /**
+     * @return The statistics as a JSON object. Times are given in nanoseconds, counters that were not recorded are null.
+     */
+    public String toJson() {
+        final String phaseObjects = phases.entrySet().stream()
+                .map(entry -> String.format("    \"%s\": {\"wallNanos\": %d, \"cpuNanos\": %s, \"allocatedBytes\": %s}",
+                        entry.getKey().name(),
+                        entry.getValue().wallNanos,
+                        jsonCount(entry.getValue().cpuNanos),
+                        jsonCount(entry.getValue().allocatedBytes)))
+                .collect(Collectors.joining(",\n"));
+
+        return "{\n" +
+                "  \"phases\": {\n" + phaseObjects + (phaseObjects.isEmpty() ? "" : "\n") + "  },\n" +
+                "  \"compilations\": " + compilations + ",\n" +
+                "  \"tokens\": " + jsonCount(tokens) + ",\n" +
+                "  \"astNodes\": " + jsonCount(astNodes) + ",\n" +
+                "  \"symbolTableEntries\": " + jsonCount(symbolTableEntries) + ",\n" +
+                "  \"instructions\": " + jsonCount(instructions) + "\n" +
+                "}\n";
+    }
+
+    private static String jsonCount(long count) {
+        return count < 0 ? "null" : Long.toString(count);
+    }
+}
@@ -0,0 +1,73 @@
+package de.thm.mni.compilerbau;
+
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Forwards a compilation to a running {@link CompileServer}.
+ */
+final class CompileClient {
+    private CompileClient() {
+    }
+
+    /**
+     * Sends the source text to the server and waits for the result.
+     *
+     * @param socketPath The socket the server listens on.
+     * @param options    The options to compile with.
+     * @param source     The source code of the program.
+     * @return The result computed by the server or empty if no server is listening on the socket, the socket can not
+     * be trusted, i.e. it does not belong to the current user, or the source is too long for the server. The source is
+     * not sent to a socket of another user.
+     * @throws IOException If the connection breaks down or the server fails to compile the program.
+     */
+    static Optional<CompilationResult> compile(Path socketPath, CompilerOptions options, String source) throws IOException {
+        if (!Files.exists(socketPath, LinkOption.NOFOLLOW_LINKS)) return Optional.empty();
+        if (CompileProtocol.exceedsMaxSourceLength(source)) return Optional.empty();
+        if (!isTrusted(socketPath)) {
+            System.err.println("Ignoring the compile server socket " + socketPath + ", it does not belong to the current user");
+            return Optional.empty();
+        }
+
+        final SocketChannel channel;
+        try {
+            channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        } catch (UnsupportedOperationException e) {
+            return Optional.empty();
+        }
+
+        try (channel) {
+            try {
+                channel.connect(UnixDomainSocketAddress.of(socketPath));
+            } catch (IOException e) {
+                return Optional.empty();
+            }
+
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            CompileProtocol.writeRequest(out, options, source);
+
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            return Optional.of(CompileProtocol.readResponse(in));
+        }
+    }
+
+    /**
+     * @return Whether the socket belongs to the current user. The default socket must also be in a directory private
+     * to the user, so nobody else can replace it after the check.
+     */
+    private static boolean isTrusted(Path socketPath) {
+        try {
+            if (!CompileProtocol.isOwnedByCurrentUser(socketPath)) return false;
+            return !socketPath.equals(CompileProtocol.defaultSocketPath()) || CompileProtocol.isPrivateDirectory(socketPath.getParent());
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+}
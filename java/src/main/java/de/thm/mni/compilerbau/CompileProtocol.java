@@ -0,0 +1,229 @@
+package de.thm.mni.compilerbau;
+
+import de.thm.mni.compilerbau.CommandLineOptions.PhaseOption;
+import de.thm.mni.compilerbau.absyn.Position;
+import de.thm.mni.compilerbau.utils.SplError;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The wire format spoken between {@link CompileServer} and {@link CompileClient}.
+ * <p>
+ * Every connection carries exactly one request followed by one response. A request consists of the
+ * {@link CompilerOptions} and the source text, a response of the listing, the generated code and the diagnostics.
+ * Strings are sent as their length in bytes followed by their UTF-8 encoding, a length of -1 encodes null.
+ */
+final class CompileProtocol {
+    private static final int MAGIC = 0x53504c32; // "SPL2"
+
+    private static final int STATUS_SUCCESS = 0;
+    private static final int STATUS_SPL_ERROR = 1;
+    private static final int STATUS_INTERNAL_ERROR = 2;
+
+    /**
+     * The largest source text in bytes the server accepts, so a single request can not make it allocate arbitrary
+     * amounts of memory. Larger programs are compiled by the client itself.
+     */
+    static final int MAX_SOURCE_LENGTH = 64 << 20;
+
+    private CompileProtocol() {
+    }
+
+    /**
+     * An error on the server side that is not caused by the compiled program.
+     */
+    static class ServerError extends IOException {
+        ServerError(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * @return The socket the server listens on unless another one is given with --socket. It is placed in the runtime
+     * directory of the user if there is one, otherwise in a directory of its own in the temporary directory, which the
+     * server creates with {@link #createPrivateDirectory(Path)}. Either way, other users can not create the socket first.
+     */
+    static Path defaultSocketPath() {
+        final String runtimeDirectory = System.getenv("XDG_RUNTIME_DIR");
+        if (runtimeDirectory != null && !runtimeDirectory.isEmpty()) return Path.of(runtimeDirectory, "spl-compiler.sock");
+        return Path.of(System.getProperty("java.io.tmpdir"), "spl-compiler-" + System.getProperty("user.name"), "compiler.sock");
+    }
+
+    /**
+     * Creates a directory only the current user can access, unless it already exists.
+     *
+     * @throws IOException If the directory can not be created or exists but is not private to the current user.
+     */
+    static void createPrivateDirectory(Path directory) throws IOException {
+        try {
+            if (directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            } else {
+                Files.createDirectory(directory);
+            }
+        } catch (FileAlreadyExistsException ignored) {
+            // Checked below, someone else may have created it.
+        }
+        if (!isPrivateDirectory(directory)) throw new IOException(directory + " is not a directory private to the current user");
+    }
+
+    /**
+     * @return Whether the path is a directory that is owned by the current user and can not be accessed by others.
+     */
+    static boolean isPrivateDirectory(Path directory) throws IOException {
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS) || !isOwnedByCurrentUser(directory)) return false;
+        if (!directory.getFileSystem().supportedFileAttributeViews().contains("posix")) return true;
+        final Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory, LinkOption.NOFOLLOW_LINKS);
+        return permissions.stream().allMatch(permission -> permission.name().startsWith("OWNER_"));
+    }
+
+    /**
+     * @return Whether the file, or the link itself if it is a symbolic link, belongs to the current user.
+     */
+    static boolean isOwnedByCurrentUser(Path path) throws IOException {
+        final UserPrincipal currentUser = path.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        return Files.getOwner(path, LinkOption.NOFOLLOW_LINKS).equals(currentUser);
+    }
+
+    static void writeRequest(DataOutputStream out, CompilerOptions options, String source) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(options.phaseOption() == null ? -1 : options.phaseOption().ordinal());
+        out.writeBoolean(options.ershovOptimization());
+        out.writeBoolean(options.doWhileEnabled());
+        out.writeBoolean(options.firstClassBoolean());
+        out.writeBoolean(options.nestedScopesEnabled());
+        out.writeBoolean(options.leafProcedureOptimization());
+        out.writeBoolean(options.recordsEnabled());
+        out.writeBoolean(options.valueSemanticsEnabled());
+        out.writeBoolean(options.compoundLiteralsEnabled());
+        out.writeBoolean(options.descentParserEnabled());
+        writeString(out, source);
+        out.flush();
+    }
+
+    /**
+     * Reads the options of a request. The source text has to be read with {@link #readRequestSource(DataInputStream)}
+     * afterwards.
+     *
+     * @throws IOException If the request is malformed or the connection breaks down.
+     */
+    static CompilerOptions readRequestOptions(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a request of a compatible SPL compile client");
+        final int phase = in.readInt();
+        if (phase < -1 || phase >= PhaseOption.values().length) throw new IOException("Malformed request: unknown phase " + phase);
+        return new CompilerOptions(phase < 0 ? null : PhaseOption.values()[phase],
+                in.readBoolean(),
+                in.readBoolean(),
+                in.readBoolean(),
+                in.readBoolean(),
+                in.readBoolean(),
+                in.readBoolean(),
+                in.readBoolean(),
+                in.readBoolean(),
+                in.readBoolean());
+    }
+
+    /**
+     * Reads the source text of a request.
+     *
+     * @throws IOException If the source is longer than {@link #MAX_SOURCE_LENGTH} or the connection breaks down.
+     */
+    static String readRequestSource(DataInputStream in) throws IOException {
+        return readString(in, MAX_SOURCE_LENGTH);
+    }
+
+    /**
+     * @return Whether the source text is too long to be sent to the server, see {@link #MAX_SOURCE_LENGTH}.
+     */
+    static boolean exceedsMaxSourceLength(String source) {
+        // A char takes at most 3 bytes in UTF-8, so only long sources have to be encoded to find out.
+        return source.length() > MAX_SOURCE_LENGTH / 3 && source.getBytes(StandardCharsets.UTF_8).length > MAX_SOURCE_LENGTH;
+    }
+
+    static void writeResponse(DataOutputStream out, CompilationResult result) throws IOException {
+        if (result.successful()) {
+            out.writeInt(STATUS_SUCCESS);
+        } else {
+            final SplError error = result.diagnostics().get(0);
+            out.writeInt(STATUS_SPL_ERROR);
+            out.writeInt(error.errorCode);
+            out.writeInt(error.line());
+            out.writeInt(error.column());
+            writeString(out, error.getMessage());
+        }
+        writeString(out, result.listing());
+        writeString(out, result.assembly());
+        out.flush();
+    }
+
+    static void writeServerError(DataOutputStream out, Exception e) throws IOException {
+        out.writeInt(STATUS_INTERNAL_ERROR);
+        writeString(out, String.valueOf(e.getMessage()));
+        out.flush();
+    }
+
+    /**
+     * Reads a response and converts it back to a {@link CompilationResult}.
+     * The AST, the symbol table, the timings and the statistics stay on the server and are therefore missing in the result.
+     *
+     * @throws ServerError If the server failed to compile the program.
+     */
+    static CompilationResult readResponse(DataInputStream in) throws IOException {
+        final int status = in.readInt();
+        if (status == STATUS_INTERNAL_ERROR) throw new ServerError(readString(in));
+
+        List<SplError> diagnostics = List.of();
+        if (status == STATUS_SPL_ERROR) {
+            final int errorCode = in.readInt();
+            final long position = Position.of(in.readInt(), in.readInt());
+            diagnostics = List.of(SplError.Forwarded(errorCode, position, readString(in)));
+        }
+        final String listing = readString(in);
+        final String assembly = readString(in);
+        return new CompilationResult(null, null, listing, assembly, diagnostics, Map.of(), null);
+    }
+
+    static void writeString(DataOutputStream out, String string) throws IOException {
+        if (string == null) {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return readString(in, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads a string sent by a peer that is not trusted to send strings of a reasonable length.
+     *
+     * @param maxLength The largest accepted length in bytes.
+     * @throws IOException If the string is longer or the connection breaks down.
+     */
+    private static String readString(DataInputStream in, int maxLength) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) return null;
+        if (length > maxLength) throw new IOException("Malformed request: a string of " + length + " bytes exceeds the limit of " + maxLength + " bytes");
+        final byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) throw new EOFException("Connection closed in the middle of a message");
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,143 @@
+package de.thm.mni.compilerbau;
+
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A long-running compiler process that accepts compile requests on a Unix domain socket.
+ * <p>
+ * Starting a JVM and letting the JIT compile the scanner, the parser and the other phases takes much longer than
+ * compiling a typical SPL program. The server pays this price once: It warms up the compiler before it starts to
+ * listen and then serves every request on a pool of worker threads. See {@link CompileProtocol} for the wire format
+ * and {@link CompileClient} for the other side.
+ */
+class CompileServer {
+    /**
+     * The number of times the warm-up program is compiled before the server accepts requests.
+     */
+    private static final int WARMUP_ITERATIONS = 500;
+
+    private static final String WARMUP_PROGRAM = """
+            type vector = array [16] of int;
+            type matrix = array [4] of array [4] of int;
+
+            proc sum(ref v: vector, n: int, ref result: int) {
+              var i: int;
+              result := 0;
+              i := 0;
+              while (i < n) {
+                result := result + v[i] * (i - 1) / 2;
+                i := i + 1;
+              }
+            }
+
+            proc fill(ref m: matrix, value: int) {
+              var i: int;
+              var j: int;
+              i := 0;
+              while (i <= 3) {
+                j := 0;
+                while (j # 4) {
+                  if (i = j) m[i][j] := value; else m[i][j] := 0x10;
+                  j := j + 1;
+                }
+                i := i + 1;
+              }
+            }
+
+            proc main() {
+              var v: vector;
+              var m: matrix;
+              var r: int;
+              fill(m, 'a');
+              sum(v, 16, r);
+              if (r >= 0) printi(r);
+              printc('\\n');
+            }
+            """;
+
+    private final Path socketPath;
+    private final int jobs;
+
+    /**
+     * @param socketPath The path of the socket file to listen on.
+     * @param jobs       The number of requests served concurrently.
+     */
+    CompileServer(Path socketPath, int jobs) {
+        this.socketPath = socketPath;
+        this.jobs = jobs;
+    }
+
+    /**
+     * Warms up the compiler and serves requests until the process is terminated.
+     */
+    void run() throws IOException {
+        warmUp();
+
+        if (socketPath.equals(CompileProtocol.defaultSocketPath())) CompileProtocol.createPrivateDirectory(socketPath.getParent());
+        Files.deleteIfExists(socketPath);
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    Files.deleteIfExists(socketPath);
+                } catch (IOException ignored) {
+                }
+            }));
+
+            final ExecutorService workers = Executors.newFixedThreadPool(jobs);
+            System.err.printf("SPL compile server listening on %s with %d threads\n", socketPath, jobs);
+            while (true) {
+                final SocketChannel client = server.accept();
+                workers.execute(() -> serve(client));
+            }
+        }
+    }
+
+    private static void warmUp() {
+        final Compiler compiler = new Compiler(CompilerOptions.DEFAULT);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            if (!compiler.compile(WARMUP_PROGRAM).successful()) throw new IllegalStateException("The warm-up program does not compile");
+        }
+    }
+
+    /**
+     * Reads a single request from the client, compiles it and sends back the result.
+     * A request that can not be decoded is answered with a server error, so the client learns why it failed.
+     */
+    private static void serve(SocketChannel client) {
+        try (client;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(client)));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(client)))) {
+            final CompilerOptions options;
+            final String source;
+            try {
+                options = CompileProtocol.readRequestOptions(in);
+                source = CompileProtocol.readRequestSource(in);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Dropped a malformed request: " + e);
+                CompileProtocol.writeServerError(out, e);
+                return;
+            }
+
+            final CompilationResult result;
+            try {
+                result = new Compiler(options).compile(source);
+            } catch (Exception e) {
+                CompileProtocol.writeServerError(out, e);
+                return;
+            }
+            CompileProtocol.writeResponse(out, result);
+        } catch (IOException e) {
+            System.err.println("Dropped a request: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package de.thm.mni.compilerbau;
+
+import de.thm.mni.compilerbau.CommandLineOptions.PhaseOption;
+import de.thm.mni.compilerbau.absyn.ProcedureDeclaration;
+import de.thm.mni.compilerbau.absyn.Program;
+import de.thm.mni.compilerbau.absyn.visitor.AstPrinter;
+import de.thm.mni.compilerbau.absyn.visitor.NodeCounter;
+import de.thm.mni.compilerbau.phases._01_scanner.Scanner;
+import de.thm.mni.compilerbau.phases._01_scanner.TokenBuffer;
+import de.thm.mni.compilerbau.phases._01_scanner.TokenSource;
+import de.thm.mni.compilerbau.phases._02_03_parser.DescentParser;
+import de.thm.mni.compilerbau.phases._02_03_parser.ParallelParser;
+import de.thm.mni.compilerbau.phases._02_03_parser.Parser;
+import de.thm.mni.compilerbau.phases._02_03_parser.Sym;
+import de.thm.mni.compilerbau.phases._02_03_parser.SyntaxChecker;
+import de.thm.mni.compilerbau.phases._04a_tablebuild.TableBuilder;
+import de.thm.mni.compilerbau.phases._04b_semant.ProcedureBodyChecker;
+import de.thm.mni.compilerbau.phases._05_varalloc.VarAllocator;
+import de.thm.mni.compilerbau.phases._06_codegen.CodeGenerator;
+import de.thm.mni.compilerbau.phases._06_codegen.ProcedureCode;
+import de.thm.mni.compilerbau.table.Identifier;
+import de.thm.mni.compilerbau.table.IdentifierPool;
+import de.thm.mni.compilerbau.table.ProcedureEntry;
+import de.thm.mni.compilerbau.table.SymbolTable;
+import de.thm.mni.compilerbau.utils.Parallel;
+import de.thm.mni.compilerbau.utils.SplError;
+import de.thm.mni.compilerbau.utils.UsageMeter;
+import java_cup.runtime.DefaultSymbolFactory;
+import java_cup.runtime.Symbol;
+import java_cup.runtime.SymbolFactory;
+
+import java.io.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Callable;
+
+/**
+ * The entry point for embedding the SPL compiler into other programs.
+ * <p>
+ * A compiler runs all phases up to the one selected in its {@link CompilerOptions} on a given source text and
+ * returns everything the phases produced as a {@link CompilationResult}. It never prints to stdout or terminates the
+ * JVM. Errors in the program and failures of the compiler itself are reported in the result together with the listing
+ * produced up to that point, they are never thrown. Instances are immutable and every compilation uses its own phase objects, so a single instance can be used
+ * from many threads concurrently.
+ */
+public final class Compiler {
+    /**
+     * The phases the time spent in is recorded for. Scanning is part of {@link #PARSE} unless only tokens are requested
+     * or statistics are enabled.
+     */
+    public enum Phase {
+        SCAN, PARSE, TABLES, SEMANT, VARS, CODEGEN
+    }
+
+    /**
+     * CUP encourages you to use {@link java_cup.runtime.ComplexSymbolFactory} as a {@link SymbolFactory} which we
+     * don't need. The default implementation provides more than enough information for our needs.
+     * It is stateless and can therefore be shared by all compilations.
+     */
+    @SuppressWarnings("deprecation")
+    private static final SymbolFactory symbolFactory = new DefaultSymbolFactory();
+
+    private final CompilerOptions options;
+    private final boolean listingEnabled;
+    private final boolean statisticsEnabled;
+
+    /**
+     * Creates a compiler that records the listing of all phases.
+     *
+     * @param options The options used for every compilation.
+     */
+    public Compiler(CompilerOptions options) {
+        this(options, true);
+    }
+
+    /**
+     * @param options        The options used for every compilation.
+     * @param listingEnabled Whether to record the listing of the phases. Disable this if only the generated code is of interest.
+     */
+    public Compiler(CompilerOptions options, boolean listingEnabled) {
+        this(options, listingEnabled, false);
+    }
+
+    /**
+     * @param options           The options used for every compilation.
+     * @param listingEnabled    Whether to record the listing of the phases. Disable this if only the generated code is of interest.
+     * @param statisticsEnabled Whether to record {@link CompilationStatistics}. The scanner then reads the whole input
+     *                          before the parser starts, so both phases can be measured separately.
+     */
+    public Compiler(CompilerOptions options, boolean listingEnabled, boolean statisticsEnabled) {
+        this.options = options;
+        this.listingEnabled = listingEnabled;
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
+    public CompilerOptions options() {
+        return options;
+    }
+
+    /**
+     * Compiles an SPL program.
+     *
+     * @param source The source code of the program.
+     * @return The result of all phases that were run.
+     */
+    public CompilationResult compile(String source) {
+        return new Compilation(source, null).run();
+    }
+
+    /**
+     * Compiles an SPL program incrementally: The semantic analysis, the variable allocation and the code generation
+     * are only performed for procedures that changed since the last compilation using the same state, the results
+     * for all others are taken from the state. The result is the same as the one of {@link #compile(String)}.
+     * <p>
+     * The state is only used if all phases are run. After a successful compilation it holds the procedures of the
+     * compiled program.
+     *
+     * @param source The source code of the program.
+     * @param state  The results of the previous compilation of the program.
+     * @return The result of all phases that were run.
+     */
+    public CompilationResult compile(String source, IncrementalState state) {
+        return new Compilation(source, state).run();
+    }
+
+    /**
+     * The state of a single compilation.
+     */
+    private final class Compilation {
+        private final String source;
+        private final IncrementalState incremental;
+        private final CommandLineOptions phaseOptions = options.toCommandLineOptions();
+        private final StringWriter listingBuffer = new StringWriter();
+        private final PrintWriter listing = listingEnabled ? new PrintWriter(listingBuffer) : new PrintWriter(Writer.nullWriter());
+        private final Map<Phase, Duration> timings = new EnumMap<>(Phase.class);
+        private final CompilationStatistics statistics = statisticsEnabled ? new CompilationStatistics() : null;
+        private final IdentifierPool identifiers = new IdentifierPool();
+
+        private Program program = null;
+        private SymbolTable table = null;
+        private String assembly = null;
+
+        private Compilation(String source, IncrementalState incremental) {
+            this.source = source;
+            this.incremental = incremental;
+        }
+
+        private CompilationResult run() {
+            try {
+                runPhases();
+                return result(List.of());
+            } catch (SplError error) {
+                return result(List.of(error));
+            } catch (RuntimeException e) {
+                return result(List.of(SplError.InternalError(e)));
+            }
+        }
+
+        private CompilationResult result(List<SplError> diagnostics) {
+            listing.flush();
+            return new CompilationResult(program, table, listingBuffer.toString(), assembly, diagnostics, Collections.unmodifiableMap(timings), statistics);
+        }
+
+        private void runPhases() {
+            final PhaseOption phaseOption = phaseOptions.phaseOption;
+
+            Scanner scanner = new Scanner(new StringReader(source));
+            scanner.options = phaseOptions; // Inject the command line options into the scanner to grant it access to feature flags.
+            scanner.identifiers = identifiers;
+
+            if (phaseOption == PhaseOption.TOKENS) {
+                timed(Phase.SCAN, () -> {
+                    long count = 0;
+                    Symbol token;
+                    do {
+                        token = scanner.next_token();
+                        count++;
+                        showToken(token);
+                    } while (token.sym != Sym.EOF);
+                    if (statistics != null) statistics.setTokens(count);
+                    return null;
+                });
+                return;
+            }
+
+            if (phaseOption == PhaseOption.PARSE) {
+                checkSyntax(scanner);
+                listing.println("Input parsed successfully!");
+                return;
+            }
+
+            //Parse errors are thrown as SplError
+            final TokenBuffer tokens;
+            if (statistics != null) {
+                tokens = timed(Phase.SCAN, () -> TokenBuffer.scan(source, phaseOptions, identifiers));
+                statistics.setTokens(tokens.size());
+            } else {
+                tokens = null;
+            }
+            program = timed(Phase.PARSE, () -> parse(scanner, tokens));
+            if (statistics != null) statistics.setAstNodes(NodeCounter.count(program));
+
+            if (phaseOption == PhaseOption.ABSYN) {
+                AstPrinter.print(program, listing);
+                listing.println();
+                return;
+            }
+
+            table = timed(Phase.TABLES, () -> new TableBuilder(phaseOptions, listing).buildSymbolTable(program));
+            if (statistics != null) statistics.setSymbolTableEntries(countEntries());
+            if (phaseOption == PhaseOption.TABLES) return;
+
+            if (incremental != null && phaseOption == null) {
+                runBackEndIncrementally();
+                return;
+            }
+
+            timed(Phase.SEMANT, () -> {
+                new ProcedureBodyChecker(phaseOptions).checkProcedures(program, table);
+                return null;
+            });
+            if (phaseOption == PhaseOption.SEMANT) {
+                listing.println("No semantic errors found!");
+                return;
+            }
+
+            timed(Phase.VARS, () -> {
+                new VarAllocator(phaseOptions, listing).allocVars(program, table);
+                return null;
+            });
+            if (phaseOption == PhaseOption.VARS) return;
+
+            assembly = timed(Phase.CODEGEN, () -> {
+                StringWriter code = new StringWriter();
+                try (PrintWriter out = new PrintWriter(code)) {
+                    CodeGenerator generator = new CodeGenerator(phaseOptions, out);
+                    generator.generateCode(program, table);
+                    if (statistics != null) statistics.setInstructions(generator.emittedInstructions());
+                }
+                return code.toString();
+            });
+        }
+
+        /**
+         * Checks the syntax of the source code without building the abstract syntax tree. Unless statistics are
+         * recorded, the tokens are read one at a time from a scanner reusing its symbols, so the memory used does not
+         * grow with the size of the input.
+         *
+         * @param scanner The scanner for the source code.
+         */
+        private void checkSyntax(Scanner scanner) {
+            if (statistics != null) {
+                final TokenBuffer tokens = timed(Phase.SCAN, () -> TokenBuffer.scan(source, phaseOptions, identifiers));
+                statistics.setTokens(tokens.size());
+                timed(Phase.PARSE, () -> {
+                    new SyntaxChecker(tokens).check();
+                    return null;
+                });
+                return;
+            }
+            scanner.symbolReuseEnabled = true;
+            timed(Phase.PARSE, () -> {
+                new SyntaxChecker(scanner).check();
+                return null;
+            });
+        }
+
+        /**
+         * Parses the source code with the parser selected in the options. Large sources are split and parsed in
+         * parallel by the {@link ParallelParser}, unless the tokens were already scanned.
+         *
+         * @param scanner The scanner for the source code.
+         * @param tokens  The tokens of the source code if they were already scanned, otherwise null.
+         */
+        private Program parse(Scanner scanner, TokenBuffer tokens) {
+            if (tokens != null) return parse(tokens);
+            if (ParallelParser.worthSplitting(source)) return ParallelParser.parse(source, phaseOptions, identifiers, this::parse);
+            // The CUP parser reads from the scanner directly, the descent parser needs all tokens up front.
+            return phaseOptions.descentParserEnabled ? parse(TokenBuffer.scan(source, phaseOptions, identifiers)) : parseWithCup(scanner);
+        }
+
+        /**
+         * Parses the tokens of the source code or of a part of it with the parser selected in the options.
+         * Called concurrently by the {@link ParallelParser}.
+         */
+        private Program parse(TokenBuffer tokens) {
+            return phaseOptions.descentParserEnabled ? new DescentParser(tokens).parse() : parseWithCup(tokens);
+        }
+
+        private Program parseWithCup(TokenSource tokens) {
+            Parser parser = new Parser(tokens, symbolFactory);
+            parser.options = phaseOptions; // Inject the command line options into the parser to grant it access to feature flags.
+            try {
+                return (Program) parser.parse().value;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Runs the phases after the table building like {@link #runPhases()}, but only for the procedures the
+         * incremental state has no results for. The listing of the variable allocation still covers all procedures.
+         */
+        private void runBackEndIncrementally() {
+            final IncrementalState.Fingerprints fingerprints = new IncrementalState.Fingerprints(source, program, table, options);
+            final List<ProcedureDeclaration> procedures = new ArrayList<>();
+            final List<String> keys = new ArrayList<>();
+            final List<IncrementalState.ProcedureArtifacts> previous = new ArrayList<>();
+            final List<ProcedureDeclaration> changed = new ArrayList<>();
+
+            timed(Phase.SEMANT, () -> {
+                for (var declaration : program.declarations) {
+                    if (!(declaration instanceof ProcedureDeclaration procedure)) continue;
+                    final String key = fingerprints.of(procedure);
+                    final IncrementalState.ProcedureArtifacts artifacts = incremental.lookup(key);
+                    procedures.add(procedure);
+                    keys.add(key);
+                    previous.add(artifacts);
+                    if (artifacts != null) artifacts.restore(procedure, (ProcedureEntry) table.lookup(procedure.name));
+                    else changed.add(procedure);
+                }
+                new ProcedureBodyChecker(phaseOptions).checkProcedures(changed, table);
+                return null;
+            });
+
+            timed(Phase.VARS, () -> {
+                new VarAllocator(phaseOptions, listing).allocVars(program, table, changed);
+                return null;
+            });
+
+            final List<ProcedureCode> codes = new ArrayList<>();
+            assembly = timed(Phase.CODEGEN, () -> {
+                final Iterator<ProcedureCode> generated = Parallel.map(changed, procedure -> CodeGenerator.generateProcedure(procedure, table)).iterator();
+                for (IncrementalState.ProcedureArtifacts artifacts : previous) {
+                    codes.add(artifacts != null ? artifacts.code() : generated.next());
+                }
+                StringWriter code = new StringWriter();
+                try (PrintWriter out = new PrintWriter(code)) {
+                    CodeGenerator generator = new CodeGenerator(phaseOptions, out);
+                    generator.emitProcedures(codes);
+                    if (statistics != null) statistics.setInstructions(generator.emittedInstructions());
+                }
+                return code.toString();
+            });
+
+            final Map<String, IncrementalState.ProcedureArtifacts> artifacts = new HashMap<>();
+            for (int i = 0; i < procedures.size(); i++) {
+                final ProcedureDeclaration procedure = procedures.get(i);
+                artifacts.put(keys.get(i), previous.get(i) != null ? previous.get(i)
+                        : IncrementalState.ProcedureArtifacts.capture(procedure, (ProcedureEntry) table.lookup(procedure.name), codes.get(i)));
+            }
+            incremental.update(artifacts, procedures.size() - changed.size());
+        }
+
+        /**
+         * @return The number of entries in the global table and the local tables of all declared procedures.
+         */
+        private long countEntries() {
+            long count = table.size();
+            for (var declaration : program.declarations) {
+                if (declaration instanceof ProcedureDeclaration procedureDeclaration
+                        && table.find(procedureDeclaration.name).orElse(null) instanceof ProcedureEntry procedureEntry) {
+                    count += procedureEntry.localTable.size();
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Runs a phase and records the time spent in it, even if the phase fails.
+         * If statistics are enabled, the CPU time and the allocated memory of the phase are recorded as well, including
+         * those of the work the phase hands to other threads with {@link Parallel}.
+         */
+        private <T> T timed(Phase phase, Callable<T> action) {
+            final UsageMeter meter = statistics != null ? new UsageMeter() : null;
+            final UsageMeter previous = UsageMeter.switchTo(meter);
+            final long start = System.nanoTime();
+            try {
+                return action.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                final long wall = System.nanoTime() - start;
+                UsageMeter.switchTo(previous);
+                timings.put(phase, Duration.ofNanos(wall));
+                if (statistics != null) {
+                    statistics.record(phase, new CompilationStatistics.PhaseStatistics(wall, meter.cpuNanos(), meter.allocatedBytes()));
+                }
+            }
+        }
+
+        /**
+         * Prints a token to the listing to realize the --tokens output.
+         *
+         * @param token The token to print.
+         */
+        private void showToken(Symbol token) {
+            listing.printf("TOKEN = %s", Sym.terminalNames[token.sym]);   // Name of token class
+
+            if (token.sym != Sym.EOF) listing.printf(" in line %d, column %d", token.left, token.right); // Line and Column
+
+            if (token.value != null) {
+                listing.print(", value = ");
+                if (token.value instanceof String || token.value instanceof Identifier) listing.printf("\"%s\"", token.value);
+                else listing.print(token.value);
+            }
+            listing.println();
+        }
+    }
+}
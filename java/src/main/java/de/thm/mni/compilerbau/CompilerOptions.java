@@ -0,0 +1,84 @@
+package de.thm.mni.compilerbau;
+
+import de.thm.mni.compilerbau.CommandLineOptions.PhaseOption;
+
+/**
+ * An immutable snapshot of the options that influence a single compilation.
+ * Unlike {@link CommandLineOptions} an instance of this class can be shared freely between threads.
+ *
+ * @param phaseOption          The last phase to run or null to run all phases and generate code.
+ * @param descentParserEnabled Whether to parse with the {@link de.thm.mni.compilerbau.phases._02_03_parser.DescentParser}
+ *                             instead of the parser generated by CUP. Both produce the same results.
+ */
+public record CompilerOptions(PhaseOption phaseOption,
+                              boolean ershovOptimization,
+                              boolean doWhileEnabled,
+                              boolean firstClassBoolean,
+                              boolean nestedScopesEnabled,
+                              boolean leafProcedureOptimization,
+                              boolean recordsEnabled,
+                              boolean valueSemanticsEnabled,
+                              boolean compoundLiteralsEnabled,
+                              boolean descentParserEnabled) {
+    /**
+     * Runs all phases with every optional language feature and optimization disabled.
+     */
+    public static final CompilerOptions DEFAULT = new CompilerOptions(null, false, false, false, false, false, false, false, false, false);
+
+    /**
+     * Takes a snapshot of the compilation relevant parts of the given command line options.
+     *
+     * @param options The parsed command line options.
+     * @return A new immutable instance.
+     */
+    public static CompilerOptions of(CommandLineOptions options) {
+        return new CompilerOptions(options.phaseOption,
+                options.ershovOptimization,
+                options.doWhileEnabled,
+                options.firstClassBoolean,
+                options.nestedScopesEnabled,
+                options.leafProcedureOptimization,
+                options.recordsEnabled,
+                options.valueSemanticsEnabled,
+                options.compoundLiteralsEnabled,
+                options.descentParserEnabled);
+    }
+
+    /**
+     * @param phaseOption The last phase to run or null to run all phases.
+     * @return A copy of these options stopping after the given phase.
+     */
+    public CompilerOptions withPhaseOption(PhaseOption phaseOption) {
+        return new CompilerOptions(phaseOption,
+                ershovOptimization,
+                doWhileEnabled,
+                firstClassBoolean,
+                nestedScopesEnabled,
+                leafProcedureOptimization,
+                recordsEnabled,
+                valueSemanticsEnabled,
+                compoundLiteralsEnabled,
+                descentParserEnabled);
+    }
+
+    /**
+     * The compiler phases receive their feature flags as {@link CommandLineOptions}.
+     * Every compilation gets its own instance, so no mutable state is shared between compilations.
+     *
+     * @return A fresh mutable copy of these options.
+     */
+    CommandLineOptions toCommandLineOptions() {
+        CommandLineOptions options = new CommandLineOptions();
+        options.phaseOption = phaseOption;
+        options.ershovOptimization = ershovOptimization;
+        options.doWhileEnabled = doWhileEnabled;
+        options.firstClassBoolean = firstClassBoolean;
+        options.nestedScopesEnabled = nestedScopesEnabled;
+        options.leafProcedureOptimization = leafProcedureOptimization;
+        options.recordsEnabled = recordsEnabled;
+        options.valueSemanticsEnabled = valueSemanticsEnabled;
+        options.compoundLiteralsEnabled = compoundLiteralsEnabled;
+        options.descentParserEnabled = descentParserEnabled;
+        return options;
+    }
+}
@@ -0,0 +1,341 @@
+package de.thm.mni.compilerbau;
+
+import de.thm.mni.compilerbau.absyn.*;
+import de.thm.mni.compilerbau.absyn.visitor.DoNothingVisitor;
+import de.thm.mni.compilerbau.phases._05_varalloc.StackLayout;
+import de.thm.mni.compilerbau.phases._06_codegen.ProcedureCode;
+import de.thm.mni.compilerbau.table.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * What an incremental compilation remembers of the procedures of the previous compilation of the same program.
+ * <p>
+ * Every procedure is identified by a fingerprint of its declaration, the compiler options and the declarations of the
+ * global names it uses, i.e. the parameters of the procedures it calls and the types it refers to. A procedure
+ * with an unchanged fingerprint passes the semantic analysis again and gets the same stack layout and code, so these
+ * phases are skipped for it and their results are taken from this state instead.
+ * <p>
+ * The state is kept in memory between compilations with {@link Compiler#compile(String, IncrementalState)} and can be
+ * stored in a file to carry it over to the next run of the compiler.
+ */
+public final class IncrementalState {
+    private static final int MAGIC = 0x53504c49; // "SPLI"
+
+    /**
+     * The results of the variable allocation and the code generation for a procedure.
+     *
+     * @param argumentAreaSize The size of the argument area of the procedure.
+     * @param localVarAreaSize The size of the local variable area of the procedure.
+     * @param outgoingAreaSize The size of the outgoing area of the procedure.
+     * @param parameterOffsets The offsets of the parameters in the order of their declaration.
+     * @param variableOffsets  The offsets of the local variables in the order of their declaration.
+     * @param code             The relocatable code of the procedure.
+     */
+    record ProcedureArtifacts(int argumentAreaSize, int localVarAreaSize, int outgoingAreaSize,
+                              int[] parameterOffsets, int[] variableOffsets, ProcedureCode code) {
+
+        /**
+         * Captures the stack layout and offsets a procedure got in phase 5.
+         */
+        static ProcedureArtifacts capture(ProcedureDeclaration declaration, ProcedureEntry entry, ProcedureCode code) {
+            final StackLayout layout = entry.stackLayout;
+            final int[] parameterOffsets = new int[declaration.parameters.size()];
+            for (int i = 0; i < parameterOffsets.length; i++) {
+                parameterOffsets[i] = entry.parameterTypes.get(i).offset;
+            }
+            final int[] variableOffsets = new int[declaration.variables.size()];
+            for (int i = 0; i < variableOffsets.length; i++) {
+                variableOffsets[i] = ((VariableEntry) entry.localTable.lookup(declaration.variables.get(i).name)).offset;
+            }
+            return new ProcedureArtifacts(layout.argumentAreaSize, layout.localVarAreaSize, layout.outgoingAreaSize,
+                    parameterOffsets, variableOffsets, code);
+        }
+
+        /**
+         * Sets everything phase 5 would have computed for the procedure, so the allocation of other procedures and the
+         * listing of phase 5 can use it.
+         */
+        void restore(ProcedureDeclaration declaration, ProcedureEntry entry) {
+            entry.stackLayout.argumentAreaSize = argumentAreaSize;
+            entry.stackLayout.localVarAreaSize = localVarAreaSize;
+            entry.stackLayout.outgoingAreaSize = outgoingAreaSize;
+            for (int i = 0; i < parameterOffsets.length; i++) {
+                entry.parameterTypes.get(i).offset = parameterOffsets[i];
+                ((VariableEntry) entry.localTable.lookup(declaration.parameters.get(i).name)).offset = parameterOffsets[i];
+            }
+            for (int i = 0; i < variableOffsets.length; i++) {
+                ((VariableEntry) entry.localTable.lookup(declaration.variables.get(i).name)).offset = variableOffsets[i];
+            }
+        }
+    }
+
+    private Map<String, ProcedureArtifacts> procedures = new HashMap<>();
+    private int reusedProcedures = 0;
+
+    /**
+     * Creates an empty state, so the first compilation using it runs all phases for all procedures.
+     */
+    public IncrementalState() {
+    }
+
+    /**
+     * Reads a state written by {@link #write(Path)}.
+     *
+     * @param file The file the state was written to.
+     * @return The state or an empty state if the file does not exist or can not be read.
+     */
+    public static IncrementalState read(Path file) {
+        final IncrementalState state = new IncrementalState();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) return state;
+            final int count = in.readInt();
+            final Map<String, ProcedureArtifacts> procedures = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                final String fingerprint = CompileProtocol.readString(in);
+                final int argumentAreaSize = in.readInt();
+                final int localVarAreaSize = in.readInt();
+                final int outgoingAreaSize = in.readInt();
+                final int[] parameterOffsets = readInts(in);
+                final int[] variableOffsets = readInts(in);
+                final String template = CompileProtocol.readString(in);
+                final ProcedureCode code = new ProcedureCode(template, in.readInt(), in.readInt(), in.readInt());
+                procedures.put(fingerprint, new ProcedureArtifacts(argumentAreaSize, localVarAreaSize, outgoingAreaSize,
+                        parameterOffsets, variableOffsets, code));
+            }
+            state.procedures = procedures;
+        } catch (IOException | RuntimeException ignored) {
+            // A missing or damaged state only means that everything is compiled again.
+        }
+        return state;
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        final int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) values[i] = in.readInt();
+        return values;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) out.writeInt(value);
+    }
+
+    /**
+     * Writes the state to a file. The file is replaced atomically, so a concurrent {@link #read(Path)} never sees a
+     * partially written state.
+     *
+     * @param file The file to write the state to. Missing parent directories are created.
+     */
+    public synchronized void write(Path file) throws IOException {
+        final Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(procedures.size());
+                for (Map.Entry<String, ProcedureArtifacts> entry : procedures.entrySet()) {
+                    final ProcedureArtifacts artifacts = entry.getValue();
+                    CompileProtocol.writeString(out, entry.getKey());
+                    out.writeInt(artifacts.argumentAreaSize);
+                    out.writeInt(artifacts.localVarAreaSize);
+                    out.writeInt(artifacts.outgoingAreaSize);
+                    writeInts(out, artifacts.parameterOffsets);
+                    writeInts(out, artifacts.variableOffsets);
+                    CompileProtocol.writeString(out, artifacts.code.template());
+                    out.writeInt(artifacts.code.labelCount());
+                    out.writeInt(artifacts.code.registerDrift());
+                    out.writeInt(artifacts.code.instructionCount());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @return The number of procedures whose results were reused by the last compilation using this state.
+     */
+    public synchronized int reusedProcedures() {
+        return reusedProcedures;
+    }
+
+    synchronized ProcedureArtifacts lookup(String fingerprint) {
+        return procedures.get(fingerprint);
+    }
+
+    /**
+     * Replaces the remembered procedures with the ones of a successful compilation. Procedures which are no longer
+     * part of the program are forgotten, so the state does not grow with every edit.
+     *
+     * @param procedures The artifacts of all procedures of the program by their fingerprint.
+     * @param reused     The number of procedures whose artifacts were taken from this state.
+     */
+    synchronized void update(Map<String, ProcedureArtifacts> procedures, int reused) {
+        this.procedures = new HashMap<>(procedures);
+        this.reusedProcedures = reused;
+    }
+
+    /**
+     * Computes the fingerprints of the procedures of a program.
+     * <p>
+     * The declaration of the procedure itself is represented by its source text, which is much cheaper to hash than the
+     * printed syntax tree and changes whenever the tree does. Besides that, a fingerprint covers the declarations of all global names the
+     * procedure refers to directly or through other type declarations: the parameters of the called procedures and the
+     * declarations of the used types. The text of these declarations is used rather than the types in the symbol table,
+     * because types are compared by identity: Two separately declared array types with the same description are
+     * still different types.
+     */
+    static final class Fingerprints {
+        private final Map<Identifier, GlobalDeclaration> declarations = new HashMap<>();
+        private final Map<GlobalDeclaration, String> sourceTexts = new IdentityHashMap<>();
+        private final SymbolTable table;
+        private final String compilerAndOptions;
+
+        /**
+         * @param source  The source code of the program.
+         * @param program The program the procedures are declared in.
+         * @param table   The global symbol table of the program. It is used for the predefined types and procedures.
+         * @param options The options of the compilation.
+         */
+        Fingerprints(String source, Program program, SymbolTable table, CompilerOptions options) {
+            final int[] lineStarts = lineStarts(source);
+            for (int i = 0; i < program.declarations.size(); i++) {
+                final GlobalDeclaration declaration = program.declarations.get(i);
+                declarations.putIfAbsent(declaration.name, declaration);
+                final int start = offset(lineStarts, declaration.position);
+                final int end = i + 1 < program.declarations.size() ? offset(lineStarts, program.declarations.get(i + 1).position) : source.length();
+                sourceTexts.put(declaration, source.substring(start, end));
+            }
+            this.table = table;
+            this.compilerAndOptions = CompilationCache.compilerFingerprint() + '|' + options;
+        }
+
+        /**
+         * @return The offsets at which the lines of the source start, using the same line terminators as the scanner.
+         */
+        private static int[] lineStarts(String source) {
+            int[] starts = new int[64];
+            int lines = 1;
+            for (int i = 0; i < source.length(); i++) {
+                final char c = source.charAt(i);
+                if (c == '\r' && i + 1 < source.length() && source.charAt(i + 1) == '\n') i++;
+                else if (c != '\n' && c != '\r' && c != '\u000B' && c != '\u000C' && c != '\u0085' && c != '\u2028' && c != '\u2029') continue;
+                if (lines == starts.length) starts = Arrays.copyOf(starts, lines * 2);
+                starts[lines++] = i + 1;
+            }
+            return Arrays.copyOf(starts, lines);
+        }
+
+        private static int offset(int[] lineStarts, long position) {
+            return lineStarts[Position.line(position) - 1] + Position.column(position) - 1;
+        }
+
+        /**
+         * @param declaration The declaration of a procedure of the program.
+         * @return The hexadecimal SHA-256 hash of everything the results of the phases 4b, 5 and 6 for the procedure
+         * depend on.
+         */
+        String of(ProcedureDeclaration declaration) {
+            final MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            update(digest, compilerAndOptions);
+            update(digest, sourceTexts.get(declaration));
+
+            final DependencyCollector dependencies = new DependencyCollector();
+            declaration.accept(dependencies);
+            final SortedMap<String, String> descriptions = new TreeMap<>();
+            final Deque<Identifier> pending = new ArrayDeque<>(dependencies.names);
+            while (!pending.isEmpty()) {
+                final Identifier name = pending.pop();
+                if (descriptions.containsKey(name.toString())) continue;
+
+                final GlobalDeclaration dependency = declarations.get(name);
+                final DependencyCollector transitive = new DependencyCollector();
+                if (dependency instanceof TypeDeclaration typeDeclaration) {
+                    descriptions.put(name.toString(), typeDeclaration.toString());
+                    typeDeclaration.typeExpression.accept(transitive);
+                } else if (dependency instanceof ProcedureDeclaration procedureDeclaration) {
+                    descriptions.put(name.toString(), procedureDeclaration.parameters.toString());
+                    procedureDeclaration.parameters.forEach(parameter -> parameter.typeExpression.accept(transitive));
+                } else {
+                    descriptions.put(name.toString(), table.find(name).map(Object::toString).orElse(""));
+                }
+                pending.addAll(transitive.names);
+            }
+            descriptions.forEach((name, description) -> {
+                update(digest, name);
+                update(digest, description);
+            });
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
+    private static void update(MessageDigest digest, String part) {
+        final byte[] bytes = part.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    /**
+     * Collects the global names a procedure refers to: the types of its parameters and variables and the procedures
+     * it calls.
+     */
+    private static class DependencyCollector extends DoNothingVisitor {
+        private final List<Identifier> names = new ArrayList<>();
+
+        @Override
+        public void visit(ProcedureDeclaration procedureDeclaration) {
+            procedureDeclaration.parameters.forEach(parameter -> parameter.typeExpression.accept(this));
+            procedureDeclaration.variables.forEach(variable -> variable.typeExpression.accept(this));
+            procedureDeclaration.body.forEach(statement -> statement.accept(this));
+        }
+
+        @Override
+        public void visit(NamedTypeExpression namedTypeExpression) {
+            names.add(namedTypeExpression.name);
+        }
+
+        @Override
+        public void visit(ArrayTypeExpression arrayTypeExpression) {
+            arrayTypeExpression.baseType.accept(this);
+        }
+
+        @Override
+        public void visit(CallStatement callStatement) {
+            names.add(callStatement.procedureName);
+        }
+
+        @Override
+        public void visit(CompoundStatement compoundStatement) {
+            compoundStatement.statements.forEach(statement -> statement.accept(this));
+        }
+
+        @Override
+        public void visit(IfStatement ifStatement) {
+            ifStatement.thenPart.accept(this);
+            ifStatement.elsePart.accept(this);
+        }
+
+        @Override
+        public void visit(WhileStatement whileStatement) {
+            whileStatement.body.accept(this);
+        }
+    }
+}
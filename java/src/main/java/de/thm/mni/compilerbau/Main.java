@@ -1,111 +1,151 @@
 package de.thm.mni.compilerbau;
 
-import de.thm.mni.compilerbau.absyn.Program;
-import de.thm.mni.compilerbau.phases._01_scanner.Scanner;
-import de.thm.mni.compilerbau.phases._02_03_parser.Parser;
-import de.thm.mni.compilerbau.phases._02_03_parser.Sym;
-import de.thm.mni.compilerbau.phases._04a_tablebuild.TableBuilder;
-import de.thm.mni.compilerbau.phases._04b_semant.ProcedureBodyChecker;
-import de.thm.mni.compilerbau.phases._05_varalloc.VarAllocator;
-import de.thm.mni.compilerbau.phases._06_codegen.CodeGenerator;
-import de.thm.mni.compilerbau.table.Identifier;
 import de.thm.mni.compilerbau.utils.SplError;
-import java_cup.runtime.DefaultSymbolFactory;
-import java_cup.runtime.Symbol;
-import java_cup.runtime.SymbolFactory;
 
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static java.lang.System.exit;
 
 class Main {
 
     /**
-     * CUP encourages you to use {@link java_cup.runtime.ComplexSymbolFactory} as a {@link SymbolFactory} which we
-     * don't need. The default implementation provides more than enough information for our needs.
+     * Reads the whole input file into memory.
+     *
+     * @param filename The name of the input file.
+     * @return The content of the file.
      */
-    @SuppressWarnings("deprecation")
-    private static final SymbolFactory symbolFactory = new DefaultSymbolFactory();
+    private static String readInput(String filename) throws IOException {
+        try (FileReader input = new FileReader(filename)) {
+            StringWriter content = new StringWriter();
+            input.transferTo(content);
+            return content.toString();
+        }
+    }
 
     /**
-     * Prints a token to stdout to realize the --tokens output.
+     * Prints an error found in the compiled program to stderr.
      *
-     * @param token The token to print.
+     * @param error The error to print.
      */
-    private static void showToken(Symbol token) {
-        System.out.printf("TOKEN = %s", Sym.terminalNames[token.sym]);   // Name of token class
-
-        if (token.sym != Sym.EOF) System.out.printf(" in line %d, column %d", token.left, token.right); // Line and Column
+    private static void reportError(SplError error) {
+        System.err.println("An error occurred:");
+        if (error.line() >= 0) System.err.printf("Line %d, Column %d: ", error.line(), error.column());
+        System.err.println(error.getMessage());
+        if (error.getCause() != null) error.getCause().printStackTrace();
+    }
 
-        if (token.value != null) {
-            System.out.print(", value = ");
-            if (token.value instanceof String || token.value instanceof Identifier) System.out.printf("\"%s\"", token.value);
-            else System.out.print(token.value);
+    /**
+     * Prints the statistics to stderr or writes them to the file given with --stats=FILE.
+     *
+     * @param options    The command line options.
+     * @param statistics The statistics to report.
+     */
+    static void reportStatistics(CommandLineOptions options, CompilationStatistics statistics) throws IOException {
+        if (options.statisticsFilename.isEmpty()) {
+            System.err.print(statistics.toTable());
+            System.err.flush();
+        } else {
+            Files.writeString(Path.of(options.statisticsFilename), statistics.toJson());
         }
-        System.out.println();
     }
 
+    private static Path socketPath(CommandLineOptions options) {
+        return options.socketPath.isEmpty() ? CompileProtocol.defaultSocketPath() : Path.of(options.socketPath);
+    }
+
+    /**
+     * @return The cache selected with --cache or null if caching is disabled.
+     */
+    static CompilationCache openCache(CommandLineOptions options) throws IOException {
+        if (!options.cacheEnabled) return null;
+        final Path directory = options.cacheDirectory.isEmpty() ? CompilationCache.defaultDirectory() : Path.of(options.cacheDirectory);
+        return new CompilationCache(directory, options.cacheSize * 1024L * 1024L);
+    }
+
+    /**
+     * @return The file the state of incremental compilations of the input file is kept in. Unless another file is
+     * given with --incremental=FILE, every input file gets its own file in the cache directory.
+     */
+    static Path incrementalStatePath(CommandLineOptions options) {
+        if (!options.incrementalStateFilename.isEmpty()) return Path.of(options.incrementalStateFilename);
+        final Path directory = options.cacheDirectory.isEmpty() ? CompilationCache.defaultDirectory() : Path.of(options.cacheDirectory);
+        final String input = Path.of(options.inFilename).toAbsolutePath().normalize().toString();
+        return directory.resolve("incremental").resolve(CompilationCache.key(CompilerOptions.of(options), false, input) + ".state");
+    }
 
     public static void main(String[] args) {
         CommandLineOptions options = CommandLineOptions.parse(args);
 
-        try (FileReader input = new FileReader(options.inFilename)) {
-            Scanner scanner = new Scanner(input);
-            scanner.options = options; // Inject the command line options into the scanner to grant it access to feature flags.
-
-            if (options.phaseOption == CommandLineOptions.PhaseOption.TOKENS) {
-                Symbol token;
-                do {
-                    token = scanner.next_token();
-                    showToken(token);
-                } while (token.sym != Sym.EOF);
-                exit(0);
+        if (options.serverMode) {
+            try {
+                new CompileServer(socketPath(options), options.jobs).run();
+            } catch (Exception e) {
+                System.err.println("An error occurred: " + e.getMessage());
+                exit(1);
             }
+        }
 
-            //Parse errors are caught by the below exception handler
-            Parser parser = new Parser(scanner, symbolFactory);
-            parser.options = options; // Inject the command line options into the parser to grant it access to feature flags.
-            Program program = (Program) parser.parse().value; // Change 'parse' to 'debug_parse' for detailed parsing output. Don't forget to change it back
-
-            if (options.phaseOption == CommandLineOptions.PhaseOption.PARSE) {
-                System.out.println("Input parsed successfully!");
-                exit(0);
+        if (options.batchMode) {
+            try {
+                exit(new BatchCompiler(options).run());
+            } catch (Exception e) {
+                System.err.println("An error occurred: " + e.getMessage());
+                exit(1);
             }
+        }
 
-            if (options.phaseOption == CommandLineOptions.PhaseOption.ABSYN) {
-                System.out.println(program);
-                exit(0);
+        try {
+            final String source = readInput(options.inFilename);
+            final CompilerOptions compilerOptions = CompilerOptions.of(options);
+
+            final CompilationCache cache = openCache(options);
+            final String cacheKey = cache != null ? CompilationCache.key(compilerOptions, true, source) : null;
+
+            CompilationResult result = null;
+            if (cache != null) result = cache.lookup(cacheKey).orElse(null);
+            if (result == null) {
+                if (options.clientMode) result = CompileClient.compile(socketPath(options), compilerOptions, source).orElse(null);
+                if (result == null && options.incrementalEnabled) {
+                    final Path statePath = incrementalStatePath(options);
+                    final IncrementalState state = IncrementalState.read(statePath);
+                    result = new Compiler(compilerOptions, true, options.statisticsEnabled).compile(source, state);
+                    if (result.successful()) state.write(statePath);
+                }
+                if (result == null) result = new Compiler(compilerOptions, true, options.statisticsEnabled).compile(source);
+                if (cache != null) {
+                    cache.store(cacheKey, result);
+                    cache.evict();
+                }
             }
 
-            final var table = new TableBuilder(options).buildSymbolTable(program);
-            if (options.phaseOption == CommandLineOptions.PhaseOption.TABLES) exit(0);
+            System.out.print(result.listing());
+            System.out.flush();
 
-            new ProcedureBodyChecker(options).checkProcedures(program, table);
-            if (options.phaseOption == CommandLineOptions.PhaseOption.SEMANT) {
-                System.out.println("No semantic errors found!");
-                exit(0);
-            }
+            if (result.statistics() != null) reportStatistics(options, result.statistics());
 
-            new VarAllocator(options).allocVars(program, table);
-            if (options.phaseOption == CommandLineOptions.PhaseOption.VARS) exit(0);
+            if (!result.successful()) {
+                final SplError error = result.diagnostics().get(0);
+                reportError(error);
+                exit(error.errorCode);
+            }
 
-            try (PrintWriter out = options.getOutputWriter()) {
-                new CodeGenerator(options, out).generateCode(program, table);
-            } catch (IOException e) {
-                System.err.printf("An error occurred: Cannot open output file '%s'\n", options.outFilename);
-                exit(1);
+            if (result.assembly() != null) {
+                try (PrintWriter out = options.getOutputWriter()) {
+                    out.print(result.assembly());
+                } catch (IOException e) {
+                    System.err.printf("An error occurred: Cannot open output file '%s'\n", options.outFilename);
+                    exit(1);
+                }
             }
         } catch (FileNotFoundException e) {
             System.err.printf("An error occurred: Cannot open input file '%s'\n", options.inFilename);
             exit(1);
-        } catch (SplError error) {
-            System.err.println("An error occurred:");
-            if (error.position.line >= 0) System.err.printf("Line %d, Column %d: ", error.position.line, error.position.column);
-            System.err.println(error.getMessage());
-            exit(error.errorCode);
         } catch (Exception e) {
             System.err.println("An error occurred: " + e.getMessage());
             e.printStackTrace();
@@ -19,17 +19,12 @@ public final class ArrayAccess extends Variable {
      * @param array    The variable representing the accessed array.
      * @param index    The expression representing the index of the access.
      */
-    public ArrayAccess(Position position, Variable array, Expression index) {
+    public ArrayAccess(long position, Variable array, Expression index) {
         super(position);
         this.array = array;
         this.index = index;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("ArrayAccess", array, index);
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
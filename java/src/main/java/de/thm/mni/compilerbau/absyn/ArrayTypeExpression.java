@@ -20,17 +20,12 @@ public final class ArrayTypeExpression extends TypeExpression {
      * @param arraySize The number of elements an array of this type can hold.
      * @param baseType  The type expression of the elements type.
      */
-    public ArrayTypeExpression(Position position, int arraySize, TypeExpression baseType) {
+    public ArrayTypeExpression(long position, int arraySize, TypeExpression baseType) {
         super(position);
         this.baseType = baseType;
         this.arraySize = arraySize;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("ArrayTypeExpression", baseType, arraySize);
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
@@ -19,17 +19,12 @@ public final class AssignStatement extends Statement {
      * @param target   The variable where the value is assigned to.
      * @param value    The value to be assigned.
      */
-    public AssignStatement(Position position, Variable target, Expression value) {
+    public AssignStatement(long position, Variable target, Expression value) {
         super(position);
         this.target = target;
         this.value = value;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("AssignStatement", target, value);
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
@@ -90,18 +90,13 @@ public final class BinaryExpression extends Expression {
      * @param leftOperand  The operand on the left hand side of the operator.
      * @param rightOperand The operand on the right hand side of the operator.
      */
-    public BinaryExpression(Position position, Operator operator, Expression leftOperand, Expression rightOperand) {
+    public BinaryExpression(long position, Operator operator, Expression leftOperand, Expression rightOperand) {
         super(position);
         this.operator = operator;
         this.leftOperand = leftOperand;
         this.rightOperand = rightOperand;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("BinaryExpression", operator, leftOperand, rightOperand);
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
@@ -2,6 +2,7 @@ package de.thm.mni.compilerbau.absyn;
 
 import de.thm.mni.compilerbau.absyn.visitor.Visitor;
 import de.thm.mni.compilerbau.table.Identifier;
+import de.thm.mni.compilerbau.table.ProcedureEntry;
 
 import java.util.List;
 
@@ -16,6 +17,11 @@ import java.util.List;
 public non-sealed class CallStatement extends Statement {
     public final Identifier procedureName;
     public final List<Expression> arguments;
+    /**
+     * The entry of the called procedure, bound during phase 4b so that later phases don't have to look up the name
+     * again.
+     */
+    public ProcedureEntry entry = null;
 
     /**
      * Creates a new node representing a procedure call.
@@ -24,17 +30,12 @@ public non-sealed class CallStatement extends Statement {
      * @param procedureName The identifier of the called procedure.
      * @param arguments     The list of expressions, whose values will be passed to the procedure.
      */
-    public CallStatement(Position position, Identifier procedureName, List<Expression> arguments) {
+    public CallStatement(long position, Identifier procedureName, List<Expression> arguments) {
         super(position);
         this.procedureName = procedureName;
         this.arguments = arguments;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("CallStatement", procedureName, formatAst("Arguments", arguments.toArray()));
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
@@ -20,16 +20,11 @@ public final class CompoundStatement extends Statement {
      * @param position   The position of the statement in the source code.
      * @param statements The list of statements that this statement combines.
      */
-    public CompoundStatement(Position position, List<Statement> statements) {
+    public CompoundStatement(long position, List<Statement> statements) {
         super(position);
         this.statements = statements;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("CompoundStatement", statements.toArray());
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
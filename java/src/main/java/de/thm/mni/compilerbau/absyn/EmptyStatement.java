@@ -11,15 +11,10 @@ public final class EmptyStatement extends Statement {
      *
      * @param position The position of the statement in the source code.
      */
-    public EmptyStatement(Position position) {
+    public EmptyStatement(long position) {
         super(position);
     }
 
-    @Override
-    public String toString() {
-        return formatAst("EmptyStatement");
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
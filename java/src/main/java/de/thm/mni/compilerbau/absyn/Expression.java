@@ -13,7 +13,7 @@ import de.thm.mni.compilerbau.types.Type;
 sealed public abstract class Expression extends Node permits BinaryExpression, IntLiteral, UnaryExpression, VariableExpression {
     public Type dataType = null;
 
-    public Expression(Position position) {
+    public Expression(long position) {
         super(position);
     }
 }
@@ -17,7 +17,7 @@ sealed public abstract class GlobalDeclaration extends Node permits ProcedureDec
      * @param position The global declarations position in the source code.
      * @param name     The identifier for this global declaration.
      */
-    public GlobalDeclaration(Position position, Identifier name) {
+    public GlobalDeclaration(long position, Identifier name) {
         super(position);
         this.name = name;
     }
@@ -21,18 +21,13 @@ public final class IfStatement extends Statement {
      * @param thenPart  The executed statement if the expression evaluates to true.
      * @param elsePart  The executed statement if the expression evaluates to false.
      */
-    public IfStatement(Position position, Expression condition, Statement thenPart, Statement elsePart) {
+    public IfStatement(long position, Expression condition, Statement thenPart, Statement elsePart) {
         super(position);
         this.condition = condition;
         this.thenPart = thenPart;
         this.elsePart = elsePart;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("IfStatement", condition, thenPart, elsePart);
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
@@ -20,16 +20,11 @@ public final class IntLiteral extends Expression {
      * @param position The position of the literal in the source code.
      * @param value    The value the literal holds.
      */
-    public IntLiteral(Position position, Integer value) {
+    public IntLiteral(long position, Integer value) {
         super(position);
         this.value = Objects.requireNonNull(value, "Invalid value null for IntLiteral!");
     }
 
-    @Override
-    public String toString() {
-        return formatAst("IntLiteral", value);
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
@@ -2,6 +2,7 @@ package de.thm.mni.compilerbau.absyn;
 
 import de.thm.mni.compilerbau.absyn.visitor.Visitor;
 import de.thm.mni.compilerbau.table.Identifier;
+import de.thm.mni.compilerbau.table.TypeEntry;
 
 /**
  * This class represents a type expression consisting only of an {@link Identifier}.
@@ -11,6 +12,10 @@ import de.thm.mni.compilerbau.table.Identifier;
  */
 public final class NamedTypeExpression extends TypeExpression {
     public final Identifier name;
+    /**
+     * The entry of the type, bound during phase 4a.
+     */
+    public TypeEntry entry = null;
 
     /**
      * Creates a new node representing a named type expression.
@@ -18,16 +23,11 @@ public final class NamedTypeExpression extends TypeExpression {
      * @param position The position of the type expression in the source code.
      * @param name     The identifier used to express the type.
      */
-    public NamedTypeExpression(Position position, Identifier name) {
+    public NamedTypeExpression(long position, Identifier name) {
         super(position);
         this.name = name;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("NamedTypeExpression", name);
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
@@ -2,6 +2,7 @@ package de.thm.mni.compilerbau.absyn;
 
 import de.thm.mni.compilerbau.absyn.visitor.Visitor;
 import de.thm.mni.compilerbau.table.Identifier;
+import de.thm.mni.compilerbau.table.VariableEntry;
 
 /**
  * This class represents a named variable in SPL.
@@ -13,6 +14,10 @@ import de.thm.mni.compilerbau.table.Identifier;
  */
 public final class NamedVariable extends Variable {
     public final Identifier name;
+    /**
+     * The entry of the variable, bound during phase 4b so that later phases don't have to look up the name again.
+     */
+    public VariableEntry entry = null;
 
     /**
      * Creates a new node representing a named variable.
@@ -20,16 +25,11 @@ public final class NamedVariable extends Variable {
      * @param position The position of the variable in the source code.
      * @param name     The identifier of the variable.
      */
-    public NamedVariable(Position position, Identifier name) {
+    public NamedVariable(long position, Identifier name) {
         super(position);
         this.name = name;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("NamedVariable", name);
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
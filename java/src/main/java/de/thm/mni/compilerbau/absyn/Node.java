@@ -1,11 +1,7 @@
 package de.thm.mni.compilerbau.absyn;
 
+import de.thm.mni.compilerbau.absyn.visitor.AstPrinter;
 import de.thm.mni.compilerbau.absyn.visitor.Visitable;
-import de.thm.mni.compilerbau.utils.StringOps;
-
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * This abstract class is the root in the hierarchy of AST classes.
@@ -13,27 +9,20 @@ import java.util.stream.Collectors;
  * Every part of the AST has to extend this class.
  */
 public abstract class Node implements Visitable {
-    public final Position position;
+    /**
+     * The position of the node in the source code, encoded as described in {@link Position}.
+     */
+    public final long position;
 
-    Node(Position position) {
+    Node(long position) {
         this.position = position;
     }
 
-    private static String formatAst(String name, List<String> arguments) {
-        final var indent = 2;
-
-        if (arguments.size() == 0) {
-            return String.format("%s()", name);
-        } else {
-            return String.format("%s(\n%s)",
-                    name,
-                    StringOps.indent(String.join(",\n", arguments), indent).stripTrailing());
-        }
-    }
-
-    static String formatAst(String name, Object... arguments) {
-        return formatAst(name, Arrays.stream(arguments).map(o -> o == null ? "NULL" : o.toString()).collect(Collectors.toList()));
+    /**
+     * @return The (sub-)tree rooted at this node, printed by the {@link AstPrinter}.
+     */
+    @Override
+    public String toString() {
+        return AstPrinter.toString(this);
     }
-
-
 }
@@ -24,18 +24,13 @@ public class ParameterDeclaration extends Node {
      * @param typeExpression The type expression used to express the parameters type.
      * @param isReference    A boolean value used to represent whether the parameter is passed as a reference.
      */
-    public ParameterDeclaration(Position position, Identifier name, TypeExpression typeExpression, boolean isReference) {
+    public ParameterDeclaration(long position, Identifier name, TypeExpression typeExpression, boolean isReference) {
         super(position);
         this.name = name;
         this.typeExpression = typeExpression;
         this.isReference = isReference;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("ParameterDeclaration", name, typeExpression, isReference);
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
@@ -1,20 +1,35 @@
 package de.thm.mni.compilerbau.absyn;
 
 /**
- * This class represents the position in the source code of any {@link Node}.
+ * This class encodes the positions in the source code of any {@link Node} and of any error.
+ * <p>
+ * A position is a line and a column packed into a single long, with the line in the upper and the column in the lower
+ * 32 bits. Nodes and errors store this long, so no object is created per position. Line and column are only decoded
+ * when they are needed, e.g. when an error is reported.
  */
-public class Position {
-    public final int line, column;
-
-    public Position(int line, int column) {
-        this.line = line;
-        this.column = column;
-    }
-
+public final class Position {
     /**
      * This variable is used as a placeholder when no position is present.
      * For example when throwing an error for a missing main procedure, which is required for a SPL program to have,
      * there is no position for this missing procedure. In such cases, this value is used.
      */
-    public static final Position ERROR_POSITION = new Position(-1, -1);
+    public static final long ERROR_POSITION = of(-1, -1);
+
+    private Position() {
+    }
+
+    /**
+     * @return The position of the given line and column.
+     */
+    public static long of(int line, int column) {
+        return (long) line << 32 | column & 0xffffffffL;
+    }
+
+    public static int line(long position) {
+        return (int) (position >> 32);
+    }
+
+    public static int column(long position) {
+        return (int) position;
+    }
 }
@@ -35,23 +35,13 @@ final public class ProcedureDeclaration extends GlobalDeclaration {
      * @param variables  The procedures local variables.
      * @param body       The statements in the procedures body.
      */
-    public ProcedureDeclaration(Position position, Identifier name, List<ParameterDeclaration> parameters, List<VariableDeclaration> variables, List<Statement> body) {
+    public ProcedureDeclaration(long position, Identifier name, List<ParameterDeclaration> parameters, List<VariableDeclaration> variables, List<Statement> body) {
         super(position, name);
         this.parameters = parameters;
         this.variables = variables;
         this.body = body;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("ProcedureDeclaration",
-                name,
-                formatAst("Parameters", parameters.toArray()),
-                formatAst("Variables", variables.toArray()),
-                formatAst("Body", body.toArray())
-        );
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
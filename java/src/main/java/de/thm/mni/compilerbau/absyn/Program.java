@@ -18,16 +18,11 @@ public class Program extends Node {
      * @param position     The position of the SPL program in the source code. (This is usually the position of the first declaration)
      * @param declarations The list of global declarations in the SPL program.
      */
-    public Program(Position position, List<GlobalDeclaration> declarations) {
+    public Program(long position, List<GlobalDeclaration> declarations) {
         super(position);
         this.declarations = declarations;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("Program", declarations.toArray());
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
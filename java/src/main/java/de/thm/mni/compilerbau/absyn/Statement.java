@@ -7,7 +7,7 @@ package de.thm.mni.compilerbau.absyn;
  */
 public abstract sealed class Statement extends Node
         permits AssignStatement, CallStatement, CompoundStatement, EmptyStatement, IfStatement, WhileStatement {
-    public Statement(Position position) {
+    public Statement(long position) {
         super(position);
     }
 }
@@ -19,16 +19,11 @@ final public class TypeDeclaration extends GlobalDeclaration {
      * @param name           The declarations identifier.
      * @param typeExpression The type expression associated with this declaration.
      */
-    public TypeDeclaration(Position position, Identifier name, TypeExpression typeExpression) {
+    public TypeDeclaration(long position, Identifier name, TypeExpression typeExpression) {
         super(position, name);
         this.typeExpression = typeExpression;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("TypeDeclaration", name, typeExpression);
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
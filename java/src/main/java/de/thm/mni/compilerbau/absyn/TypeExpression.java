@@ -12,7 +12,7 @@ import de.thm.mni.compilerbau.types.Type;
 sealed public abstract class TypeExpression extends Node permits ArrayTypeExpression, NamedTypeExpression {
     public Type dataType = null;
 
-    public TypeExpression(Position position) {
+    public TypeExpression(long position) {
         super(position);
     }
 }
@@ -33,17 +33,12 @@ public final class UnaryExpression extends Expression {
      * @param operator The operator used in this expression.
      * @param operand  The operand on the right hand side of the operator.
      */
-    public UnaryExpression(Position position, Operator operator, Expression operand) {
+    public UnaryExpression(long position, Operator operator, Expression operand) {
         super(position);
         this.operator = operator;
         this.operand = operand;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("UnaryExpression", operator, operand);
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
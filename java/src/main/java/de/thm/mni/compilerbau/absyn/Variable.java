@@ -11,7 +11,7 @@ import de.thm.mni.compilerbau.types.Type;
 public abstract sealed class Variable extends Node permits ArrayAccess, NamedVariable{
     public Type dataType = null;
 
-    public Variable(Position position) {
+    public Variable(long position) {
         super(position);
     }
 }
@@ -21,17 +21,12 @@ public class VariableDeclaration extends Node {
      * @param name           The identifier of the declared local variable.
      * @param typeExpression The type expression used to express the type of the local variable.
      */
-    public VariableDeclaration(Position position, Identifier name, TypeExpression typeExpression) {
+    public VariableDeclaration(long position, Identifier name, TypeExpression typeExpression) {
         super(position);
         this.name = name;
         this.typeExpression = typeExpression;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("VariableDeclaration", name, typeExpression);
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
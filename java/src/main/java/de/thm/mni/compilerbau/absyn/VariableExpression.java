@@ -19,16 +19,11 @@ public final class VariableExpression extends Expression {
      * @param position The position of the variable in the source code.
      * @param variable The variable whose value is used as a value for this expression.
      */
-    public VariableExpression(Position position, Variable variable) {
+    public VariableExpression(long position, Variable variable) {
         super(position);
         this.variable = variable;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("VariableExpression", variable);
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
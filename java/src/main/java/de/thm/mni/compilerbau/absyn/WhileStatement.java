@@ -19,17 +19,12 @@ public final class WhileStatement extends Statement {
      * @param condition The expression used to determine whether the while-loop should continue.
      * @param body      The statement executed until the condition evaluates to false.
      */
-    public WhileStatement(Position position, Expression condition, Statement body) {
+    public WhileStatement(long position, Expression condition, Statement body) {
         super(position);
         this.condition = condition;
         this.body = body;
     }
 
-    @Override
-    public String toString() {
-        return formatAst("WhileStatement", condition, body);
-    }
-
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
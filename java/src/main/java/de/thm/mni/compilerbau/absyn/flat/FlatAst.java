@@ -0,0 +1,352 @@
+package de.thm.mni.compilerbau.absyn.flat;
+
+import de.thm.mni.compilerbau.absyn.*;
+import de.thm.mni.compilerbau.absyn.visitor.Visitor;
+import de.thm.mni.compilerbau.phases._01_scanner.TokenBuffer;
+import de.thm.mni.compilerbau.phases._02_03_parser.DescentParser;
+import de.thm.mni.compilerbau.table.Identifier;
+import de.thm.mni.compilerbau.types.Type;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact representation of an abstract syntax tree, storing all nodes in a few primitive arrays instead of one
+ * object per node.
+ * <p>
+ * A node is identified by an int handle, its index in the arrays. For every node the kind, the {@link Position}, an
+ * int payload, the id of its semantic type and the number of nodes in its subtree are stored. The nodes are laid out
+ * in preorder, so the first child of a node directly follows it and each further child follows the subtree of its
+ * predecessor. A traversal therefore reads the arrays from front to back, and a node takes 21 bytes plus the
+ * shared side tables instead of a node object and the lists holding its children.
+ * <p>
+ * The payload depends on the kind of the node: It is the index of the name in the side table of identifiers for named
+ * nodes, the value of an integer literal, the size of an array type, or the ordinal of the operator of an expression.
+ * For parameters, the index of the name is shifted left by one and the lowest bit is set for reference parameters.
+ * The children are the same as the fields of the node classes, in the order of the constructor parameters. The else
+ * part of an if statement is always present, see {@link IfStatement}.
+ * <p>
+ * Existing phases are written as {@link Visitor}s over node objects. {@link #accept(int, Visitor)} runs such a visitor
+ * on the node objects of a single subtree, which are created for the visit only, and keeps the types the visitor
+ * stored in the nodes. Other results stored in the nodes, like the entries bound to names, are not kept.
+ */
+public final class FlatAst {
+    /**
+     * The kinds of nodes, one for each class of node objects.
+     */
+    public enum Kind {
+        PROGRAM,
+        TYPE_DECLARATION,
+        PROCEDURE_DECLARATION,
+        PARAMETER_DECLARATION,
+        VARIABLE_DECLARATION,
+        NAMED_TYPE_EXPRESSION,
+        ARRAY_TYPE_EXPRESSION,
+        ASSIGN_STATEMENT,
+        CALL_STATEMENT,
+        COMPOUND_STATEMENT,
+        EMPTY_STATEMENT,
+        IF_STATEMENT,
+        WHILE_STATEMENT,
+        BINARY_EXPRESSION,
+        UNARY_EXPRESSION,
+        INT_LITERAL,
+        VARIABLE_EXPRESSION,
+        NAMED_VARIABLE,
+        ARRAY_ACCESS
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final BinaryExpression.Operator[] BINARY_OPERATORS = BinaryExpression.Operator.values();
+    private static final UnaryExpression.Operator[] UNARY_OPERATORS = UnaryExpression.Operator.values();
+    /**
+     * The type id of nodes without a type.
+     */
+    private static final int NO_TYPE = -1;
+
+    private byte[] kinds;
+    private long[] positions;
+    private int[] payloads;
+    private int[] typeIds;
+    private int[] subtreeSizes;
+    private int size = 0;
+
+    private final List<Identifier> names = new ArrayList<>();
+    private final Map<Identifier, Integer> nameIndices = new HashMap<>();
+    private final List<Type> types = new ArrayList<>();
+    /**
+     * Types are compared by reference, see {@link de.thm.mni.compilerbau.types.ArrayType}.
+     */
+    private final Map<Type, Integer> typeIndices = new IdentityHashMap<>();
+
+    private FlatAst(int capacity) {
+        kinds = new byte[capacity];
+        positions = new long[capacity];
+        payloads = new int[capacity];
+        typeIds = new int[capacity];
+        subtreeSizes = new int[capacity];
+    }
+
+    /**
+     * Copies a tree of node objects.
+     *
+     * @param root The root of the tree. The types already stored in the nodes are copied as well.
+     * @return The flat tree. The handle of the root is 0.
+     */
+    public static FlatAst of(Node root) {
+        final FlatAst ast = new FlatAst(64);
+        new FlatAstWriter(ast).write(root);
+        ast.trim();
+        return ast;
+    }
+
+    /**
+     * Parses a program directly into a flat tree. Each global declaration is copied as soon as it is parsed, so only
+     * the node objects of a single declaration exist at a time.
+     *
+     * @param tokens The tokens of the program.
+     * @return The flat tree with the {@link Kind#PROGRAM} node as its root at handle 0.
+     */
+    public static FlatAst parse(TokenBuffer tokens) {
+        // A program has about as many nodes as tokens.
+        final FlatAst ast = new FlatAst(tokens.size() + 16);
+        final FlatAstWriter writer = new FlatAstWriter(ast);
+        final int root = ast.add(Kind.PROGRAM, Position.ERROR_POSITION, 0, NO_TYPE);
+        ast.positions[root] = new DescentParser(tokens).parse(writer::write);
+        ast.close(root);
+        ast.trim();
+        return ast;
+    }
+
+    int add(Kind kind, long position, int payload, Type type) {
+        return add(kind, position, payload, type == null ? NO_TYPE : typeId(type));
+    }
+
+    private int add(Kind kind, long position, int payload, int typeId) {
+        if (size == kinds.length) {
+            final int capacity = size * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            payloads = Arrays.copyOf(payloads, capacity);
+            typeIds = Arrays.copyOf(typeIds, capacity);
+            subtreeSizes = Arrays.copyOf(subtreeSizes, capacity);
+        }
+        kinds[size] = (byte) kind.ordinal();
+        positions[size] = position;
+        payloads[size] = payload;
+        typeIds[size] = typeId;
+        subtreeSizes[size] = 1;
+        return size++;
+    }
+
+    /**
+     * Shrinks the arrays to the number of nodes once the tree is complete.
+     */
+    private void trim() {
+        kinds = Arrays.copyOf(kinds, size);
+        positions = Arrays.copyOf(positions, size);
+        payloads = Arrays.copyOf(payloads, size);
+        typeIds = Arrays.copyOf(typeIds, size);
+        subtreeSizes = Arrays.copyOf(subtreeSizes, size);
+    }
+
+    /**
+     * Ends the subtree of a node after all its descendants were added.
+     */
+    void close(int node) {
+        subtreeSizes[node] = size - node;
+    }
+
+    int nameIndex(Identifier name) {
+        return nameIndices.computeIfAbsent(name, ignored -> {
+            names.add(name);
+            return names.size() - 1;
+        });
+    }
+
+    private int typeId(Type type) {
+        return typeIndices.computeIfAbsent(type, ignored -> {
+            types.add(type);
+            return types.size() - 1;
+        });
+    }
+
+    /**
+     * @return The number of nodes in the tree.
+     */
+    public int size() {
+        return size;
+    }
+
+    public Kind kind(int node) {
+        return KINDS[kinds[node]];
+    }
+
+    /**
+     * @return The position of a node, encoded as described in {@link Position}.
+     */
+    public long position(int node) {
+        return positions[node];
+    }
+
+    /**
+     * @return The handle following the subtree of a node. This is the next sibling of the node if it has one.
+     */
+    public int end(int node) {
+        return node + subtreeSizes[node];
+    }
+
+    public int childCount(int node) {
+        int count = 0;
+        for (int child = node + 1; child < end(node); child = end(child)) count++;
+        return count;
+    }
+
+    /**
+     * @return The handle of the child with the given index. Takes time linear in the index.
+     */
+    public int child(int node, int index) {
+        int child = node + 1;
+        for (int i = 0; i < index; i++) child = end(child);
+        return child;
+    }
+
+    /**
+     * @return The name of a declaration, a named type expression, a named variable or the procedure called by a call
+     * statement.
+     */
+    public Identifier name(int node) {
+        return names.get(kind(node) == Kind.PARAMETER_DECLARATION ? payloads[node] >>> 1 : payloads[node]);
+    }
+
+    public boolean isReference(int node) {
+        return (payloads[node] & 1) != 0;
+    }
+
+    /**
+     * @return The value of an integer literal or the size of an array type expression.
+     */
+    public int intValue(int node) {
+        return payloads[node];
+    }
+
+    public BinaryExpression.Operator binaryOperator(int node) {
+        return BINARY_OPERATORS[payloads[node]];
+    }
+
+    public UnaryExpression.Operator unaryOperator(int node) {
+        return UNARY_OPERATORS[payloads[node]];
+    }
+
+    /**
+     * @return The semantic type of an expression, a variable or a type expression or null if it is not known yet.
+     */
+    public Type type(int node) {
+        return typeIds[node] == NO_TYPE ? null : types.get(typeIds[node]);
+    }
+
+    public void setType(int node, Type type) {
+        typeIds[node] = type == null ? NO_TYPE : typeId(type);
+    }
+
+    /**
+     * Creates the node objects of a subtree. The nodes are new objects on every call.
+     * <p>
+     * The nodes are created bottom-up without recursion, so subtrees of any depth can be converted: Walking the
+     * subtree backwards, the children of every node are created before the node itself. They are kept on a stack,
+     * where the first child of the node is on top.
+     *
+     * @param node The root of the subtree.
+     * @return The node object of the root.
+     */
+    public Node toNode(int node) {
+        final Deque<Node> created = new ArrayDeque<>();
+        for (int handle = end(node) - 1; handle >= node; handle--) created.push(create(handle, created));
+        return created.pop();
+    }
+
+    /**
+     * Creates the node object of a single node, taking the node objects of its children from the stack.
+     */
+    private Node create(int node, Deque<Node> created) {
+        final Node result = switch (kind(node)) {
+            case PROGRAM -> new Program(position(node), children(node, created, GlobalDeclaration.class));
+            case TYPE_DECLARATION -> new TypeDeclaration(position(node), name(node), (TypeExpression) created.pop());
+            case PROCEDURE_DECLARATION -> {
+                final List<ParameterDeclaration> parameters = new ArrayList<>();
+                final List<VariableDeclaration> variables = new ArrayList<>();
+                final List<Statement> body = new ArrayList<>();
+                for (Node child : children(node, created, Node.class)) {
+                    if (child instanceof ParameterDeclaration parameter) parameters.add(parameter);
+                    else if (child instanceof VariableDeclaration variable) variables.add(variable);
+                    else body.add((Statement) child);
+                }
+                yield new ProcedureDeclaration(position(node), name(node), parameters, variables, body);
+            }
+            case PARAMETER_DECLARATION -> new ParameterDeclaration(position(node), name(node),
+                    (TypeExpression) created.pop(), isReference(node));
+            case VARIABLE_DECLARATION -> new VariableDeclaration(position(node), name(node), (TypeExpression) created.pop());
+            case NAMED_TYPE_EXPRESSION -> new NamedTypeExpression(position(node), name(node));
+            case ARRAY_TYPE_EXPRESSION -> new ArrayTypeExpression(position(node), intValue(node), (TypeExpression) created.pop());
+            case ASSIGN_STATEMENT -> {
+                final Variable target = (Variable) created.pop();
+                yield new AssignStatement(position(node), target, (Expression) created.pop());
+            }
+            case CALL_STATEMENT -> new CallStatement(position(node), name(node), children(node, created, Expression.class));
+            case COMPOUND_STATEMENT -> new CompoundStatement(position(node), children(node, created, Statement.class));
+            case EMPTY_STATEMENT -> new EmptyStatement(position(node));
+            case IF_STATEMENT -> {
+                final Expression condition = (Expression) created.pop();
+                final Statement thenPart = (Statement) created.pop();
+                yield new IfStatement(position(node), condition, thenPart, (Statement) created.pop());
+            }
+            case WHILE_STATEMENT -> {
+                final Expression condition = (Expression) created.pop();
+                yield new WhileStatement(position(node), condition, (Statement) created.pop());
+            }
+            case BINARY_EXPRESSION -> {
+                final Expression leftOperand = (Expression) created.pop();
+                yield new BinaryExpression(position(node), binaryOperator(node), leftOperand, (Expression) created.pop());
+            }
+            case UNARY_EXPRESSION -> new UnaryExpression(position(node), unaryOperator(node), (Expression) created.pop());
+            case INT_LITERAL -> new IntLiteral(position(node), intValue(node));
+            case VARIABLE_EXPRESSION -> new VariableExpression(position(node), (Variable) created.pop());
+            case NAMED_VARIABLE -> new NamedVariable(position(node), name(node));
+            case ARRAY_ACCESS -> {
+                final Variable array = (Variable) created.pop();
+                yield new ArrayAccess(position(node), array, (Expression) created.pop());
+            }
+        };
+        if (result instanceof Expression expression) expression.dataType = type(node);
+        else if (result instanceof Variable variable) variable.dataType = type(node);
+        else if (result instanceof TypeExpression typeExpression) typeExpression.dataType = type(node);
+        return result;
+    }
+
+    /**
+     * Takes the node objects of all children of a node from the stack.
+     */
+    private <N extends Node> List<N> children(int parent, Deque<Node> created, Class<N> nodeClass) {
+        final List<N> nodes = new ArrayList<>();
+        for (int child = parent + 1; child < end(parent); child = end(child)) nodes.add(nodeClass.cast(created.pop()));
+        return nodes;
+    }
+
+    /**
+     * Runs a visitor on the node objects of a subtree and copies the types it stored in the nodes back.
+     *
+     * @param node    The root of the subtree.
+     * @param visitor The visitor, which is called for the root only, like {@link Node#accept(Visitor)}.
+     */
+    public void accept(int node, Visitor visitor) {
+        final Node root = toNode(node);
+        root.accept(visitor);
+        new FlatAstWriter(this).copyTypes(root, node);
+    }
+}
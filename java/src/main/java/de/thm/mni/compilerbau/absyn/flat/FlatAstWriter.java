@@ -0,0 +1,207 @@
+package de.thm.mni.compilerbau.absyn.flat;
+
+import de.thm.mni.compilerbau.absyn.*;
+import de.thm.mni.compilerbau.absyn.flat.FlatAst.Kind;
+import de.thm.mni.compilerbau.absyn.visitor.Visitor;
+import de.thm.mni.compilerbau.types.Type;
+
+import java.util.List;
+
+/**
+ * This visitor walks a tree of node objects in preorder, the order of the nodes in a {@link FlatAst}.
+ * <p>
+ * It either appends every node to the flat tree or, after a visitor was run on node objects created from the flat
+ * tree, copies the types of the nodes back to the nodes they were created from.
+ */
+class FlatAstWriter implements Visitor {
+    private final FlatAst ast;
+    /**
+     * The handle of the next node to copy the type to, or -1 if the nodes are appended.
+     */
+    private int cursor = -1;
+
+    FlatAstWriter(FlatAst ast) {
+        this.ast = ast;
+    }
+
+    /**
+     * Appends a subtree to the flat tree.
+     */
+    void write(Node root) {
+        root.accept(this);
+    }
+
+    /**
+     * Copies the types of a subtree to the flat tree.
+     *
+     * @param root The node objects created from the subtree.
+     * @param node The handle of the root of the subtree.
+     */
+    void copyTypes(Node root, int node) {
+        cursor = node;
+        root.accept(this);
+        cursor = -1;
+    }
+
+    /**
+     * Appends a node whose children are visited next, or copies its type.
+     *
+     * @return The handle of the node.
+     */
+    private int open(Kind kind, Node node, int payload, Type type) {
+        if (cursor >= 0) {
+            ast.setType(cursor, type);
+            return cursor++;
+        }
+        return ast.add(kind, node.position, payload, type);
+    }
+
+    /**
+     * Ends a node after its children were visited.
+     */
+    private void close(int handle) {
+        if (cursor < 0) ast.close(handle);
+    }
+
+    private void leaf(Kind kind, Node node, int payload, Type type) {
+        close(open(kind, node, payload, type));
+    }
+
+    private void visitAll(List<? extends Node> nodes) {
+        for (Node node : nodes) node.accept(this);
+    }
+
+    @Override
+    public void visit(ArrayAccess arrayAccess) {
+        final int handle = open(Kind.ARRAY_ACCESS, arrayAccess, 0, arrayAccess.dataType);
+        arrayAccess.array.accept(this);
+        arrayAccess.index.accept(this);
+        close(handle);
+    }
+
+    @Override
+    public void visit(ArrayTypeExpression arrayTypeExpression) {
+        final int handle = open(Kind.ARRAY_TYPE_EXPRESSION, arrayTypeExpression, arrayTypeExpression.arraySize, arrayTypeExpression.dataType);
+        arrayTypeExpression.baseType.accept(this);
+        close(handle);
+    }
+
+    @Override
+    public void visit(AssignStatement assignStatement) {
+        final int handle = open(Kind.ASSIGN_STATEMENT, assignStatement, 0, null);
+        assignStatement.target.accept(this);
+        assignStatement.value.accept(this);
+        close(handle);
+    }
+
+    @Override
+    public void visit(BinaryExpression binaryExpression) {
+        final int handle = open(Kind.BINARY_EXPRESSION, binaryExpression, binaryExpression.operator.ordinal(), binaryExpression.dataType);
+        binaryExpression.leftOperand.accept(this);
+        binaryExpression.rightOperand.accept(this);
+        close(handle);
+    }
+
+    @Override
+    public void visit(UnaryExpression unaryExpression) {
+        final int handle = open(Kind.UNARY_EXPRESSION, unaryExpression, unaryExpression.operator.ordinal(), unaryExpression.dataType);
+        unaryExpression.operand.accept(this);
+        close(handle);
+    }
+
+    @Override
+    public void visit(CallStatement callStatement) {
+        final int handle = open(Kind.CALL_STATEMENT, callStatement, ast.nameIndex(callStatement.procedureName), null);
+        visitAll(callStatement.arguments);
+        close(handle);
+    }
+
+    @Override
+    public void visit(CompoundStatement compoundStatement) {
+        final int handle = open(Kind.COMPOUND_STATEMENT, compoundStatement, 0, null);
+        visitAll(compoundStatement.statements);
+        close(handle);
+    }
+
+    @Override
+    public void visit(EmptyStatement emptyStatement) {
+        leaf(Kind.EMPTY_STATEMENT, emptyStatement, 0, null);
+    }
+
+    @Override
+    public void visit(IfStatement ifStatement) {
+        final int handle = open(Kind.IF_STATEMENT, ifStatement, 0, null);
+        ifStatement.condition.accept(this);
+        ifStatement.thenPart.accept(this);
+        ifStatement.elsePart.accept(this);
+        close(handle);
+    }
+
+    @Override
+    public void visit(IntLiteral intLiteral) {
+        leaf(Kind.INT_LITERAL, intLiteral, intLiteral.value, intLiteral.dataType);
+    }
+
+    @Override
+    public void visit(NamedTypeExpression namedTypeExpression) {
+        leaf(Kind.NAMED_TYPE_EXPRESSION, namedTypeExpression, ast.nameIndex(namedTypeExpression.name), namedTypeExpression.dataType);
+    }
+
+    @Override
+    public void visit(NamedVariable namedVariable) {
+        leaf(Kind.NAMED_VARIABLE, namedVariable, ast.nameIndex(namedVariable.name), namedVariable.dataType);
+    }
+
+    @Override
+    public void visit(ParameterDeclaration parameterDeclaration) {
+        final int payload = ast.nameIndex(parameterDeclaration.name) << 1 | (parameterDeclaration.isReference ? 1 : 0);
+        final int handle = open(Kind.PARAMETER_DECLARATION, parameterDeclaration, payload, null);
+        parameterDeclaration.typeExpression.accept(this);
+        close(handle);
+    }
+
+    @Override
+    public void visit(ProcedureDeclaration procedureDeclaration) {
+        final int handle = open(Kind.PROCEDURE_DECLARATION, procedureDeclaration, ast.nameIndex(procedureDeclaration.name), null);
+        visitAll(procedureDeclaration.parameters);
+        visitAll(procedureDeclaration.variables);
+        visitAll(procedureDeclaration.body);
+        close(handle);
+    }
+
+    @Override
+    public void visit(Program program) {
+        final int handle = open(Kind.PROGRAM, program, 0, null);
+        visitAll(program.declarations);
+        close(handle);
+    }
+
+    @Override
+    public void visit(TypeDeclaration typeDeclaration) {
+        final int handle = open(Kind.TYPE_DECLARATION, typeDeclaration, ast.nameIndex(typeDeclaration.name), null);
+        typeDeclaration.typeExpression.accept(this);
+        close(handle);
+    }
+
+    @Override
+    public void visit(VariableDeclaration variableDeclaration) {
+        final int handle = open(Kind.VARIABLE_DECLARATION, variableDeclaration, ast.nameIndex(variableDeclaration.name), null);
+        variableDeclaration.typeExpression.accept(this);
+        close(handle);
+    }
+
+    @Override
+    public void visit(VariableExpression variableExpression) {
+        final int handle = open(Kind.VARIABLE_EXPRESSION, variableExpression, 0, variableExpression.dataType);
+        variableExpression.variable.accept(this);
+        close(handle);
+    }
+
+    @Override
+    public void visit(WhileStatement whileStatement) {
+        final int handle = open(Kind.WHILE_STATEMENT, whileStatement, 0, null);
+        whileStatement.condition.accept(this);
+        whileStatement.body.accept(this);
+        close(handle);
+    }
+}
@@ -0,0 +1,258 @@
+package de.thm.mni.compilerbau.absyn.visitor;
+
+import de.thm.mni.compilerbau.absyn.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * This visitor prints an abstract syntax tree in the format of the '--absyn' phase.
+ * <p>
+ * Every node is printed as its name followed by its arguments in parentheses, one argument per line and indented by
+ * two more spaces than the node. The tree is written to the output in a single pass, keeping track of the current
+ * indentation, so the time needed is linear in the size of the tree, no matter how deeply it is nested.
+ */
+public class AstPrinter implements Visitor {
+    private static final int INDENTATION = 2;
+
+    private final Appendable out;
+    private int indentation = 0;
+    /**
+     * Whether the node being printed has no arguments printed yet.
+     */
+    private boolean firstArgument;
+
+    private AstPrinter(Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Prints a (sub-)tree without a trailing line break.
+     *
+     * @param root The root of the tree.
+     * @param out  The output to append the tree to.
+     */
+    public static void print(Node root, Appendable out) {
+        root.accept(new AstPrinter(out));
+    }
+
+    /**
+     * @return The printed (sub-)tree.
+     */
+    public static String toString(Node root) {
+        final StringBuilder builder = new StringBuilder();
+        print(root, builder);
+        return builder.toString();
+    }
+
+    private void append(String text) {
+        try {
+            out.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Prints the name of a node and opens the parentheses around its arguments.
+     */
+    private void open(String name) {
+        append(name);
+        append("(");
+        indentation += INDENTATION;
+        firstArgument = true;
+    }
+
+    /**
+     * Starts the next argument of the node on a new line.
+     */
+    private void nextArgument() {
+        append(firstArgument ? "\n" : ",\n");
+        append(" ".repeat(indentation));
+        firstArgument = false;
+    }
+
+    /**
+     * Closes the parentheses around the arguments of a node.
+     */
+    private void close() {
+        append(")");
+        indentation -= INDENTATION;
+        firstArgument = false;
+    }
+
+    private void argument(Node node) {
+        nextArgument();
+        if (node == null) append("NULL");
+        else node.accept(this);
+    }
+
+    private void argument(Object value) {
+        nextArgument();
+        append(value == null ? "NULL" : value.toString());
+    }
+
+    private void arguments(List<? extends Node> nodes) {
+        for (Node node : nodes) argument(node);
+    }
+
+    /**
+     * Prints a list of nodes as a pseudo node with the given name.
+     */
+    private void list(String name, List<? extends Node> nodes) {
+        nextArgument();
+        open(name);
+        arguments(nodes);
+        close();
+    }
+
+    @Override
+    public void visit(ArrayAccess arrayAccess) {
+        open("ArrayAccess");
+        argument(arrayAccess.array);
+        argument(arrayAccess.index);
+        close();
+    }
+
+    @Override
+    public void visit(ArrayTypeExpression arrayTypeExpression) {
+        open("ArrayTypeExpression");
+        argument(arrayTypeExpression.baseType);
+        argument(arrayTypeExpression.arraySize);
+        close();
+    }
+
+    @Override
+    public void visit(AssignStatement assignStatement) {
+        open("AssignStatement");
+        argument(assignStatement.target);
+        argument(assignStatement.value);
+        close();
+    }
+
+    @Override
+    public void visit(BinaryExpression binaryExpression) {
+        open("BinaryExpression");
+        argument(binaryExpression.operator);
+        argument(binaryExpression.leftOperand);
+        argument(binaryExpression.rightOperand);
+        close();
+    }
+
+    @Override
+    public void visit(UnaryExpression unaryExpression) {
+        open("UnaryExpression");
+        argument(unaryExpression.operator);
+        argument(unaryExpression.operand);
+        close();
+    }
+
+    @Override
+    public void visit(CallStatement callStatement) {
+        open("CallStatement");
+        argument(callStatement.procedureName);
+        list("Arguments", callStatement.arguments);
+        close();
+    }
+
+    @Override
+    public void visit(CompoundStatement compoundStatement) {
+        open("CompoundStatement");
+        arguments(compoundStatement.statements);
+        close();
+    }
+
+    @Override
+    public void visit(EmptyStatement emptyStatement) {
+        open("EmptyStatement");
+        close();
+    }
+
+    @Override
+    public void visit(IfStatement ifStatement) {
+        open("IfStatement");
+        argument(ifStatement.condition);
+        argument(ifStatement.thenPart);
+        argument(ifStatement.elsePart);
+        close();
+    }
+
+    @Override
+    public void visit(IntLiteral intLiteral) {
+        open("IntLiteral");
+        argument(intLiteral.value);
+        close();
+    }
+
+    @Override
+    public void visit(NamedTypeExpression namedTypeExpression) {
+        open("NamedTypeExpression");
+        argument(namedTypeExpression.name);
+        close();
+    }
+
+    @Override
+    public void visit(NamedVariable namedVariable) {
+        open("NamedVariable");
+        argument(namedVariable.name);
+        close();
+    }
+
+    @Override
+    public void visit(ParameterDeclaration parameterDeclaration) {
+        open("ParameterDeclaration");
+        argument(parameterDeclaration.name);
+        argument(parameterDeclaration.typeExpression);
+        argument(parameterDeclaration.isReference);
+        close();
+    }
+
+    @Override
+    public void visit(ProcedureDeclaration procedureDeclaration) {
+        open("ProcedureDeclaration");
+        argument(procedureDeclaration.name);
+        list("Parameters", procedureDeclaration.parameters);
+        list("Variables", procedureDeclaration.variables);
+        list("Body", procedureDeclaration.body);
+        close();
+    }
+
+    @Override
+    public void visit(Program program) {
+        open("Program");
+        arguments(program.declarations);
+        close();
+    }
+
+    @Override
+    public void visit(TypeDeclaration typeDeclaration) {
+        open("TypeDeclaration");
+        argument(typeDeclaration.name);
+        argument(typeDeclaration.typeExpression);
+        close();
+    }
+
+    @Override
+    public void visit(VariableDeclaration variableDeclaration) {
+        open("VariableDeclaration");
+        argument(variableDeclaration.name);
+        argument(variableDeclaration.typeExpression);
+        close();
+    }
+
+    @Override
+    public void visit(VariableExpression variableExpression) {
+        open("VariableExpression");
+        argument(variableExpression.variable);
+        close();
+    }
+
+    @Override
+    public void visit(WhileStatement whileStatement) {
+        open("WhileStatement");
+        argument(whileStatement.condition);
+        argument(whileStatement.body);
+        close();
+    }
+}
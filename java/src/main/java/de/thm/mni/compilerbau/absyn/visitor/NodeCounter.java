@@ -0,0 +1,144 @@
+package de.thm.mni.compilerbau.absyn.visitor;
+
+import de.thm.mni.compilerbau.absyn.*;
+
+import java.util.List;
+
+/**
+ * This visitor counts all nodes of an abstract syntax tree.
+ */
+public class NodeCounter implements Visitor {
+    private long count = 0;
+
+    /**
+     * @param root The root of the (sub-)tree.
+     * @return The number of nodes in the tree, including the root.
+     */
+    public static long count(Node root) {
+        final NodeCounter counter = new NodeCounter();
+        root.accept(counter);
+        return counter.count;
+    }
+
+    private void visitAll(List<? extends Node> nodes) {
+        for (Node node : nodes) node.accept(this);
+    }
+
+    @Override
+    public void visit(ArrayAccess arrayAccess) {
+        count++;
+        arrayAccess.array.accept(this);
+        arrayAccess.index.accept(this);
+    }
+
+    @Override
+    public void visit(ArrayTypeExpression arrayTypeExpression) {
+        count++;
+        arrayTypeExpression.baseType.accept(this);
+    }
+
+    @Override
+    public void visit(AssignStatement assignStatement) {
+        count++;
+        assignStatement.target.accept(this);
+        assignStatement.value.accept(this);
+    }
+
+    @Override
+    public void visit(BinaryExpression binaryExpression) {
+        count++;
+        binaryExpression.leftOperand.accept(this);
+        binaryExpression.rightOperand.accept(this);
+    }
+
+    @Override
+    public void visit(UnaryExpression unaryExpression) {
+        count++;
+        unaryExpression.operand.accept(this);
+    }
+
+    @Override
+    public void visit(CallStatement callStatement) {
+        count++;
+        visitAll(callStatement.arguments);
+    }
+
+    @Override
+    public void visit(CompoundStatement compoundStatement) {
+        count++;
+        visitAll(compoundStatement.statements);
+    }
+
+    @Override
+    public void visit(EmptyStatement emptyStatement) {
+        count++;
+    }
+
+    @Override
+    public void visit(IfStatement ifStatement) {
+        count++;
+        ifStatement.condition.accept(this);
+        ifStatement.thenPart.accept(this);
+        ifStatement.elsePart.accept(this);
+    }
+
+    @Override
+    public void visit(IntLiteral intLiteral) {
+        count++;
+    }
+
+    @Override
+    public void visit(NamedTypeExpression namedTypeExpression) {
+        count++;
+    }
+
+    @Override
+    public void visit(NamedVariable namedVariable) {
+        count++;
+    }
+
+    @Override
+    public void visit(ParameterDeclaration parameterDeclaration) {
+        count++;
+        parameterDeclaration.typeExpression.accept(this);
+    }
+
+    @Override
+    public void visit(ProcedureDeclaration procedureDeclaration) {
+        count++;
+        visitAll(procedureDeclaration.parameters);
+        visitAll(procedureDeclaration.variables);
+        visitAll(procedureDeclaration.body);
+    }
+
+    @Override
+    public void visit(Program program) {
+        count++;
+        visitAll(program.declarations);
+    }
+
+    @Override
+    public void visit(TypeDeclaration typeDeclaration) {
+        count++;
+        typeDeclaration.typeExpression.accept(this);
+    }
+
+    @Override
+    public void visit(VariableDeclaration variableDeclaration) {
+        count++;
+        variableDeclaration.typeExpression.accept(this);
+    }
+
+    @Override
+    public void visit(VariableExpression variableExpression) {
+        count++;
+        variableExpression.variable.accept(this);
+    }
+
+    @Override
+    public void visit(WhileStatement whileStatement) {
+        count++;
+        whileStatement.condition.accept(this);
+        whileStatement.body.accept(this);
+    }
+}
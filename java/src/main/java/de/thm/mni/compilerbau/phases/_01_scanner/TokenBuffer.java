@@ -0,0 +1,324 @@
+package de.thm.mni.compilerbau.phases._01_scanner;
+
+import de.thm.mni.compilerbau.CommandLineOptions;
+import de.thm.mni.compilerbau.absyn.Position;
+import de.thm.mni.compilerbau.phases._02_03_parser.Sym;
+import de.thm.mni.compilerbau.table.Identifier;
+import de.thm.mni.compilerbau.table.IdentifierPool;
+import de.thm.mni.compilerbau.utils.SplError;
+import java_cup.runtime.Symbol;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The tokens of a whole input, scanned ahead of parsing into a compact buffer.
+ * <p>
+ * Instead of a {@link Symbol} per token, the kind, start offset, length and value of every token are stored in
+ * parallel arrays. The value of an integer literal is the literal itself, the value of an identifier is the index of
+ * its name in a side table holding one {@link Identifier} per distinct name. Recording a token therefore allocates
+ * nothing, apart from growing the arrays and the first occurrence of each name.
+ * <p>
+ * Lines and columns are not stored per token. Within a line, the column of a token follows from its start offset, so
+ * only the tokens starting a new line are recorded in a second, much smaller table of line runs: the line number and
+ * the offset of the first column of that line.
+ * <p>
+ * As a {@link TokenSource} the buffer hands the tokens to the parser in the same order, creating the symbols on
+ * demand, so the parser behaves exactly as if it read from the {@link Scanner} directly. This includes errors: If the
+ * scanner fails, the error is thrown once the parser asks for the offending token, so a syntax error in front of it is
+ * still reported first.
+ */
+public final class TokenBuffer implements TokenSource {
+    /**
+     * The number of source characters per token the arrays are initially sized for. Code written by hand with
+     * indentation and comments has about this many or more, so the arrays are not much larger than needed. Densely
+     * generated code, like the one of the benchmarks with about 2.2 characters per token, lets the arrays grow by
+     * doubling once.
+     */
+    private static final int CHARACTERS_PER_TOKEN = 4;
+
+    private final String source;
+    private byte[] kinds;
+    private int[] starts;
+    private int[] lengths;
+    private int[] values;
+    private int size = 0;
+
+    /**
+     * The first token of each line run, i.e. each sequence of tokens in the same line.
+     */
+    private int[] runTokens = new int[64];
+    private int[] runLines = new int[64];
+    /**
+     * The offset the first column of the line of each run would have, so the column of a token is its start offset
+     * minus the origin plus one.
+     */
+    private int[] runOrigins = new int[64];
+    private int runCount = 0;
+    /**
+     * The run of the token looked up last. The parser asks for the positions of tokens mostly in order.
+     */
+    private int lastRun = 0;
+
+    private final List<Identifier> identifiers = new ArrayList<>();
+    /**
+     * An open addressing hash table over the names in {@link #identifiers}, holding their index + 1 or 0 for free slots.
+     */
+    private int[] identifierSlots = new int[256];
+
+    private SplError error = null;
+    private int next = 0;
+
+    private TokenBuffer(String source) {
+        this.source = source;
+        final int capacity = source.length() / CHARACTERS_PER_TOKEN + 16;
+        kinds = new byte[capacity];
+        starts = new int[capacity];
+        lengths = new int[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * Scans a whole input up to and including the end of file or the first scanner error.
+     *
+     * @param source      The source code to scan.
+     * @param options     The command line options, which are injected into the scanner.
+     * @param identifiers The pool of the compilation to take the identifiers from.
+     * @return The recorded tokens.
+     */
+    public static TokenBuffer scan(String source, CommandLineOptions options, IdentifierPool identifiers) {
+        return scan(source, Position.of(1, 1), options, identifiers);
+    }
+
+    /**
+     * Scans a part of a larger source, giving the tokens and errors the positions they have in the whole source.
+     *
+     * @param source      The part of the source code to scan. The text and the offsets of the tokens refer to this part.
+     * @param start       The position of the first character of the part in the whole source.
+     * @param options     The command line options, which are injected into the scanner.
+     * @param identifiers The pool of the compilation to take the identifiers from.
+     * @return The recorded tokens.
+     */
+    public static TokenBuffer scan(String source, long start, CommandLineOptions options, IdentifierPool identifiers) {
+        final TokenBuffer buffer = new TokenBuffer(source);
+        final Scanner scanner = new Scanner(new StringReader(source));
+        scanner.options = options;
+        scanner.identifiers = identifiers;
+        scanner.buffer = buffer;
+        scanner.firstLine = Position.line(start);
+        scanner.firstColumn = Position.column(start);
+        try {
+            while (scanner.next_token().sym != Sym.EOF) {
+                // The scanner records the tokens itself.
+            }
+        } catch (SplError error) {
+            buffer.error = error;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer;
+    }
+
+    void add(int kind, int start, int length, int line, int column, int value) {
+        if (size == kinds.length) {
+            final int capacity = size * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        if (runCount == 0 || runLines[runCount - 1] != line || start - runOrigins[runCount - 1] + 1 != column) {
+            addRun(line, start - column + 1);
+        }
+        kinds[size] = (byte) kind;
+        starts[size] = start;
+        lengths[size] = length;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Starts a new line run with the next token.
+     */
+    private void addRun(int line, int origin) {
+        if (runCount == runTokens.length) {
+            final int capacity = runCount * 2;
+            runTokens = Arrays.copyOf(runTokens, capacity);
+            runLines = Arrays.copyOf(runLines, capacity);
+            runOrigins = Arrays.copyOf(runOrigins, capacity);
+        }
+        runTokens[runCount] = size;
+        runLines[runCount] = line;
+        runOrigins[runCount] = origin;
+        runCount++;
+    }
+
+    /**
+     * Searches the line run of a token, starting at the run looked up last and galloping from there in either
+     * direction, so tokens close to the last one are found quickly.
+     *
+     * @return The line run a token belongs to.
+     */
+    private int run(int token) {
+        int low;
+        int high;
+        final int run = lastRun;
+        if (runTokens[run] <= token) {
+            if (run + 1 == runCount || token < runTokens[run + 1]) return run;
+            int step = 1;
+            low = run + 1;
+            while (low + step < runCount && runTokens[low + step] <= token) {
+                low += step;
+                step <<= 1;
+            }
+            high = Math.min(low + step, runCount) - 1;
+        } else {
+            int step = 1;
+            high = run - 1;
+            while (high - step >= 0 && runTokens[high - step] > token) {
+                high -= step;
+                step <<= 1;
+            }
+            low = Math.max(high - step, 0);
+        }
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (runTokens[middle] <= token) low = middle;
+            else high = middle - 1;
+        }
+        return lastRun = low;
+    }
+
+    /**
+     * Looks up the name of the identifier the scanner just matched in the side table, adding it if it is new.
+     * The name is compared with the characters in the buffer of the scanner, so only new names are turned into strings.
+     *
+     * @return The index of the name in the side table.
+     */
+    int intern(Scanner scanner) {
+        final int length = scanner.yylength();
+        int hash = 0;
+        for (int i = 0; i < length; i++) hash = 31 * hash + scanner.yycharat(i);
+
+        final int mask = identifierSlots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            final int index = identifierSlots[slot] - 1;
+            if (index < 0) {
+                identifiers.add(scanner.identifiers.get(scanner.yytext()));
+                identifierSlots[slot] = identifiers.size();
+                if (identifiers.size() * 2 > identifierSlots.length) rehash();
+                return identifiers.size() - 1;
+            }
+            if (matches(identifiers.get(index).toString(), scanner, length)) return index;
+        }
+    }
+
+    private static boolean matches(String name, Scanner scanner, int length) {
+        if (name.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != scanner.yycharat(i)) return false;
+        }
+        return true;
+    }
+
+    private void rehash() {
+        identifierSlots = new int[identifierSlots.length * 2];
+        final int mask = identifierSlots.length - 1;
+        for (int index = 0; index < identifiers.size(); index++) {
+            int slot = identifiers.get(index).toString().hashCode() & mask;
+            while (identifierSlots[slot] != 0) slot = (slot + 1) & mask;
+            identifierSlots[slot] = index + 1;
+        }
+    }
+
+    /**
+     * @return The number of recorded tokens, including the end of file token.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The kind of a token, one of the constants in {@link Sym}.
+     */
+    public int kind(int token) {
+        return kinds[token];
+    }
+
+    /**
+     * @return The line a token starts in, starting with 1.
+     */
+    public int line(int token) {
+        return runLines[run(token)];
+    }
+
+    /**
+     * @return The column a token starts in, starting with 1.
+     */
+    public int column(int token) {
+        return starts[token] - runOrigins[run(token)] + 1;
+    }
+
+    /**
+     * @return The position of a token, encoded as described in {@link Position}.
+     */
+    public long position(int token) {
+        final int run = run(token);
+        return Position.of(runLines[run], starts[token] - runOrigins[run] + 1);
+    }
+
+    /**
+     * @return The value of an integer literal.
+     */
+    public int intValue(int token) {
+        return values[token];
+    }
+
+    /**
+     * @return The name of an identifier. The same instance is returned for all occurrences of a name.
+     */
+    public Identifier identifier(int token) {
+        return identifiers.get(values[token]);
+    }
+
+    /**
+     * @return The source text of a token.
+     */
+    public String text(int token) {
+        return source.substring(starts[token], starts[token] + lengths[token]);
+    }
+
+    /**
+     * @return The error the scanner stopped at, or null if the whole input was scanned.
+     */
+    public SplError error() {
+        return error;
+    }
+
+    @Override
+    public Symbol next_token() {
+        if (next == size) {
+            if (error != null) throw error;
+            // The parser reads one token past EOF before accepting. Like the scanner, return a new EOF token for that,
+            // since the parser refuses to see the same symbol object twice.
+            return new Symbol(Sym.EOF, line(next - 1), column(next - 1));
+        }
+        final int token = next++;
+        final int line = line(token);
+        final int column = column(token);
+        return switch (kinds[token]) {
+            case Sym.IDENT -> new Symbol(Sym.IDENT, line, column, identifier(token));
+            case Sym.INTLIT -> new Symbol(Sym.INTLIT, line, column, values[token]);
+            default -> new Symbol(kinds[token], line, column);
+        };
+    }
+
+    @Override
+    public String yytext() {
+        return next == 0 ? "" : text(next - 1);
+    }
+}
@@ -0,0 +1,24 @@
+package de.thm.mni.compilerbau.phases._01_scanner;
+
+import de.thm.mni.compilerbau.utils.SplError;
+import java_cup.runtime.Symbol;
+
+import java.io.IOException;
+
+/**
+ * A source of tokens the {@link de.thm.mni.compilerbau.phases._02_03_parser.Parser} and the
+ * {@link de.thm.mni.compilerbau.phases._02_03_parser.SyntaxChecker} can read from.
+ * Besides the tokens themselves, they need the source text of the current token to report syntax errors.
+ */
+public interface TokenSource extends java_cup.runtime.Scanner {
+    /**
+     * @return The next token. Only reading the input may fail, lexical errors are thrown as {@link SplError}.
+     */
+    @Override
+    Symbol next_token() throws IOException;
+
+    /**
+     * @return The source text of the token returned last by {@link #next_token()}.
+     */
+    String yytext();
+}
@@ -0,0 +1,339 @@
+package de.thm.mni.compilerbau.phases._02_03_parser;
+
+import de.thm.mni.compilerbau.absyn.*;
+import de.thm.mni.compilerbau.phases._01_scanner.TokenBuffer;
+import de.thm.mni.compilerbau.utils.SplError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hand-written alternative to the {@link Parser} generated by CUP, reading the tokens directly from a
+ * {@link TokenBuffer}. Statements and declarations are parsed by recursive descent, expressions by precedence climbing
+ * (Pratt parsing), so no symbols or parse stack are allocated.
+ * <p>
+ * The parser builds exactly the same abstract syntax tree as the CUP parser, including the positions of all nodes.
+ * CUP gives a nonterminal the line of its first and the column of its last token, or the column of the preceding
+ * token twice if it is empty, and some nodes are positioned at a nonterminal instead of a token. Syntax errors are
+ * reported at the same token with the same message, since both parsers stop at the first token that can not continue
+ * the input read so far. Scanner errors are thrown when the offending token would be read, which is also when the CUP
+ * parser reads it.
+ */
+public final class DescentParser {
+    /**
+     * The binding power of the unary minus, which binds stronger than every binary operator.
+     */
+    private static final int UNARY_MINUS_POWER = 4;
+
+    private final TokenBuffer tokens;
+    /**
+     * The index of the next token to parse.
+     */
+    private int current;
+    /**
+     * The kind of the next token.
+     */
+    private int kind;
+
+    /**
+     * @param tokens The tokens of the whole input.
+     */
+    public DescentParser(TokenBuffer tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Parses the whole input.
+     *
+     * @return The abstract syntax tree of the program.
+     * @throws SplError If the input contains a lexical or syntax error.
+     */
+    public Program parse() {
+        final List<GlobalDeclaration> declarations = new ArrayList<>();
+        final long position = parse(declarations::add);
+        return new Program(position, declarations);
+    }
+
+    /**
+     * Parses the whole input, handing each global declaration on as soon as it is parsed instead of collecting them
+     * in a {@link Program}.
+     *
+     * @param declarations Receives the global declarations in the order of the input.
+     * @return The position of the {@link Program} node.
+     * @throws SplError If the input contains a lexical or syntax error. Declarations in front of the error may already
+     *                  have been handed on.
+     */
+    public long parse(Consumer<GlobalDeclaration> declarations) {
+        current = -1;
+        advance();
+
+        final int first = current;
+        while (kind == Sym.TYPE || kind == Sym.PROC) {
+            declarations.accept(kind == Sym.TYPE ? typeDeclaration() : procedureDeclaration());
+        }
+        if (kind != Sym.EOF) throw syntaxError();
+
+        // An empty program gets the position of the start symbol of the CUP parser.
+        return current == first ? Position.of(0, 0) : extent(first);
+    }
+
+    private TypeDeclaration typeDeclaration() {
+        final int tag = expect(Sym.TYPE);
+        final int name = expect(Sym.IDENT);
+        expect(Sym.EQ);
+        final TypeExpression type = type();
+        expect(Sym.SEMIC);
+        return new TypeDeclaration(position(tag), tokens.identifier(name), type);
+    }
+
+    private TypeExpression type() {
+        if (kind == Sym.IDENT) {
+            final int name = expect(Sym.IDENT);
+            return new NamedTypeExpression(position(name), tokens.identifier(name));
+        }
+        final int tag = expect(Sym.ARRAY);
+        expect(Sym.LBRACK);
+        final int size = expect(Sym.INTLIT);
+        expect(Sym.RBRACK);
+        expect(Sym.OF);
+        return new ArrayTypeExpression(position(tag), tokens.intValue(size), type());
+    }
+
+    private ProcedureDeclaration procedureDeclaration() {
+        final int tag = expect(Sym.PROC);
+        final int name = expect(Sym.IDENT);
+        expect(Sym.LPAREN);
+        final List<ParameterDeclaration> parameters = new ArrayList<>();
+        if (kind == Sym.IDENT || kind == Sym.REF) {
+            parameters.add(parameterDeclaration());
+            while (kind == Sym.COMMA) {
+                advance();
+                parameters.add(parameterDeclaration());
+            }
+        }
+        expect(Sym.RPAREN);
+        expect(Sym.LCURL);
+        final List<VariableDeclaration> variables = new ArrayList<>();
+        while (kind == Sym.VAR) variables.add(variableDeclaration());
+        final List<Statement> body = statements();
+        expect(Sym.RCURL);
+        return new ProcedureDeclaration(position(tag), tokens.identifier(name), parameters, variables, body);
+    }
+
+    private ParameterDeclaration parameterDeclaration() {
+        final boolean isReference = kind == Sym.REF;
+        final int tag = current;
+        if (isReference) advance();
+        final int name = expect(Sym.IDENT);
+        expect(Sym.COLON);
+        return new ParameterDeclaration(position(tag), tokens.identifier(name), type(), isReference);
+    }
+
+    private VariableDeclaration variableDeclaration() {
+        final int tag = expect(Sym.VAR);
+        final int name = expect(Sym.IDENT);
+        expect(Sym.COLON);
+        final TypeExpression type = type();
+        expect(Sym.SEMIC);
+        return new VariableDeclaration(position(tag), tokens.identifier(name), type);
+    }
+
+    /**
+     * Parses statements up to the first token that can not start a statement.
+     */
+    private List<Statement> statements() {
+        final List<Statement> statements = new ArrayList<>();
+        while (kind == Sym.IDENT || kind == Sym.LCURL || kind == Sym.IF || kind == Sym.WHILE || kind == Sym.SEMIC) {
+            statements.add(statement());
+        }
+        return statements;
+    }
+
+    private Statement statement() {
+        switch (kind) {
+            case Sym.IDENT -> {
+                final int name = expect(Sym.IDENT);
+                return kind == Sym.LPAREN ? callStatement(name) : assignStatement(name);
+            }
+            case Sym.LCURL -> {
+                final int open = expect(Sym.LCURL);
+                final int first = current;
+                final List<Statement> statements = statements();
+                expect(Sym.RCURL);
+                final long position = statements.isEmpty()
+                        ? Position.of(tokens.column(open), tokens.column(open))
+                        : Position.of(tokens.line(first), tokens.column(current - 2));
+                return new CompoundStatement(position, statements);
+            }
+            case Sym.IF -> {
+                final int tag = expect(Sym.IF);
+                expect(Sym.LPAREN);
+                final Expression condition = expression(0);
+                expect(Sym.RPAREN);
+                final Statement thenPart = statement();
+                if (kind != Sym.ELSE) {
+                    return new IfStatement(position(tag), condition, thenPart, new EmptyStatement(Position.ERROR_POSITION));
+                }
+                advance();
+                return new IfStatement(position(tag), condition, thenPart, statement());
+            }
+            case Sym.WHILE -> {
+                final int tag = expect(Sym.WHILE);
+                expect(Sym.LPAREN);
+                final Expression condition = expression(0);
+                expect(Sym.RPAREN);
+                return new WhileStatement(position(tag), condition, statement());
+            }
+            case Sym.SEMIC -> {
+                return new EmptyStatement(position(expect(Sym.SEMIC)));
+            }
+            default -> throw syntaxError();
+        }
+    }
+
+    private CallStatement callStatement(int name) {
+        expect(Sym.LPAREN);
+        final List<Expression> arguments = new ArrayList<>();
+        if (kind == Sym.LPAREN || kind == Sym.INTLIT || kind == Sym.IDENT || kind == Sym.MINUS) {
+            arguments.add(expression(0));
+            while (kind == Sym.COMMA) {
+                advance();
+                arguments.add(expression(0));
+            }
+        }
+        expect(Sym.RPAREN);
+        expect(Sym.SEMIC);
+        return new CallStatement(position(name), tokens.identifier(name), arguments);
+    }
+
+    private AssignStatement assignStatement(int name) {
+        final Variable target = variable(name);
+        final long position = extent(name);
+        expect(Sym.ASGN);
+        final Expression value = expression(0);
+        expect(Sym.SEMIC);
+        return new AssignStatement(position, target, value);
+    }
+
+    /**
+     * Parses the rest of a variable whose name was already read.
+     */
+    private Variable variable(int name) {
+        Variable variable = new NamedVariable(position(name), tokens.identifier(name));
+        while (kind == Sym.LBRACK) {
+            final long position = extent(name);
+            advance();
+            final Expression index = expression(0);
+            expect(Sym.RBRACK);
+            variable = new ArrayAccess(position, variable, index);
+        }
+        return variable;
+    }
+
+    /**
+     * Parses an expression, continuing as long as the binary operators bind stronger than the given power.
+     *
+     * @param minimumPower The binding power of the operator to the left of the expression or 0 if there is none.
+     */
+    private Expression expression(int minimumPower) {
+        final int start = current;
+        Expression expression = switch (kind) {
+            case Sym.LPAREN -> {
+                advance();
+                final Expression inner = expression(0);
+                expect(Sym.RPAREN);
+                yield inner;
+            }
+            case Sym.INTLIT -> {
+                final int literal = expect(Sym.INTLIT);
+                yield new IntLiteral(position(literal), tokens.intValue(literal));
+            }
+            case Sym.IDENT -> {
+                final int name = expect(Sym.IDENT);
+                final Variable variable = variable(name);
+                yield new VariableExpression(extent(name), variable);
+            }
+            case Sym.MINUS -> {
+                final int operator = expect(Sym.MINUS);
+                yield new UnaryExpression(position(operator), UnaryExpression.Operator.MINUS, expression(UNARY_MINUS_POWER));
+            }
+            default -> throw syntaxError();
+        };
+
+        for (int power = bindingPower(kind); power > minimumPower; power = bindingPower(kind)) {
+            final BinaryExpression.Operator operator = binaryOperator(kind);
+            final long position = extent(start);
+            advance();
+            expression = new BinaryExpression(position, operator, expression, expression(power));
+        }
+        return expression;
+    }
+
+    /**
+     * @return The binding power of a binary operator or 0 if the token is none. All binary operators are left
+     * associative, comparisons bind weakest and multiplicative operators strongest.
+     */
+    private static int bindingPower(int kind) {
+        return switch (kind) {
+            case Sym.LT, Sym.LE, Sym.EQ, Sym.GE, Sym.GT, Sym.NE -> 1;
+            case Sym.PLUS, Sym.MINUS -> 2;
+            case Sym.STAR, Sym.SLASH -> 3;
+            default -> 0;
+        };
+    }
+
+    private static BinaryExpression.Operator binaryOperator(int kind) {
+        return switch (kind) {
+            case Sym.LT -> BinaryExpression.Operator.LST;
+            case Sym.LE -> BinaryExpression.Operator.LSE;
+            case Sym.EQ -> BinaryExpression.Operator.EQU;
+            case Sym.GE -> BinaryExpression.Operator.GRE;
+            case Sym.GT -> BinaryExpression.Operator.GRT;
+            case Sym.NE -> BinaryExpression.Operator.NEQ;
+            case Sym.PLUS -> BinaryExpression.Operator.ADD;
+            case Sym.MINUS -> BinaryExpression.Operator.SUB;
+            case Sym.STAR -> BinaryExpression.Operator.MUL;
+            case Sym.SLASH -> BinaryExpression.Operator.DIV;
+            default -> throw new IllegalArgumentException("Not a binary operator: " + kind);
+        };
+    }
+
+    /**
+     * Moves on to the next token. Like the CUP parser, the token following a consumed one is read right away, so a
+     * scanner error is thrown at the same point.
+     */
+    private void advance() {
+        current++;
+        if (current == tokens.size()) throw tokens.error();
+        kind = tokens.kind(current);
+    }
+
+    /**
+     * Consumes the next token, which must be of the given kind.
+     *
+     * @return The index of the consumed token.
+     * @throws SplError If the next token is of another kind.
+     */
+    private int expect(int kind) {
+        if (this.kind != kind) throw syntaxError();
+        final int token = current;
+        advance();
+        return token;
+    }
+
+    private SplError syntaxError() {
+        return SplError.SyntaxError(position(current), tokens.text(current));
+    }
+
+    private long position(int token) {
+        return tokens.position(token);
+    }
+
+    /**
+     * @return The position CUP gives a nonterminal starting with the given token and ending with the last consumed one.
+     */
+    private long extent(int first) {
+        return Position.of(tokens.line(first), tokens.column(current - 1));
+    }
+}
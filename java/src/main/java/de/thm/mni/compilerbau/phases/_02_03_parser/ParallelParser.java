@@ -0,0 +1,222 @@
+package de.thm.mni.compilerbau.phases._02_03_parser;
+
+import de.thm.mni.compilerbau.CommandLineOptions;
+import de.thm.mni.compilerbau.absyn.GlobalDeclaration;
+import de.thm.mni.compilerbau.absyn.Position;
+import de.thm.mni.compilerbau.absyn.Program;
+import de.thm.mni.compilerbau.phases._01_scanner.TokenBuffer;
+import de.thm.mni.compilerbau.table.IdentifierPool;
+import de.thm.mni.compilerbau.utils.Parallel;
+import de.thm.mni.compilerbau.utils.SplError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Parses large programs in parallel by splitting them into chunks of global declarations.
+ * <p>
+ * The top level of a program is a flat sequence of type and procedure declarations, and the keywords 'type' and 'proc'
+ * can only start one of them. The source can therefore be split in front of these keywords without scanning it
+ * properly: Only comments and character literals have to be skipped, since they may contain the words or braces. As a
+ * safeguard against invalid input, only keywords outside of braces are used. The chunks are scanned and parsed
+ * concurrently with {@link Parallel}, and their declarations are concatenated in order.
+ * <p>
+ * The tokens of each chunk get the positions they have in the whole source, so a successful parse yields the same tree
+ * as parsing the whole source at once. If any chunk fails, the whole source is parsed again on the calling thread:
+ * In an invalid program a chunk may start in the middle of a declaration, so only the sequential parse is guaranteed
+ * to report the right error.
+ */
+public final class ParallelParser {
+    /**
+     * The length of the smallest chunk worth scanning and parsing on its own.
+     */
+    private static final int MINIMUM_CHUNK_LENGTH = 64 * 1024;
+    /**
+     * The number of chunks per thread, so threads finishing early can take over some of the work of the others.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * @param text  The part of the source.
+     * @param start The position of the first character of the part.
+     */
+    private record Chunk(String text, long start) {
+    }
+
+    private ParallelParser() {
+    }
+
+    /**
+     * @return Whether a source is large enough to be split into at least two chunks and there are threads to parse
+     * them in parallel.
+     */
+    public static boolean worthSplitting(String source) {
+        return ForkJoinPool.getCommonPoolParallelism() > 1 && source.length() >= 2 * MINIMUM_CHUNK_LENGTH;
+    }
+
+    /**
+     * Parses a program, splitting it into chunks if possible.
+     *
+     * @param source      The source code of the program.
+     * @param options     The command line options, which are injected into the scanners.
+     * @param identifiers The pool of the compilation, which all chunks take their identifiers from.
+     * @param parser      Parses the tokens of a chunk or of the whole source. It is called concurrently.
+     * @return The program, the same as parsing the tokens of the whole source.
+     * @throws SplError If the program contains a lexical or syntax error.
+     */
+    public static Program parse(String source, CommandLineOptions options, IdentifierPool identifiers, Function<TokenBuffer, Program> parser) {
+        final int chunkCount = Math.min(ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD, source.length() / MINIMUM_CHUNK_LENGTH);
+        final List<Chunk> chunks = split(source, Math.max(chunkCount, 1));
+        if (chunks.size() > 1) {
+            try {
+                return merge(Parallel.map(chunks, chunk -> parser.apply(TokenBuffer.scan(chunk.text, chunk.start, options, identifiers))));
+            } catch (SplError ignored) {
+                // Parse the whole source below to find the right error.
+            }
+        }
+        return parser.apply(TokenBuffer.scan(source, options, identifiers));
+    }
+
+    /**
+     * Joins the programs parsed from the chunks. Each of them contains at least one declaration, since every chunk
+     * does.
+     */
+    private static Program merge(List<Program> parts) {
+        final List<GlobalDeclaration> declarations = new ArrayList<>();
+        for (Program part : parts) declarations.addAll(part.declarations);
+        // Like every nonterminal, the program is positioned at the line of its first and the column of its last token.
+        final long first = parts.get(0).position;
+        final long last = parts.get(parts.size() - 1).position;
+        return new Program(Position.of(Position.line(first), Position.column(last)), declarations);
+    }
+
+    /**
+     * Splits a source in front of top-level keywords into chunks of about the same length. The first chunk starts at
+     * the beginning of the source, every other one with a keyword, so every chunk contains at least one keyword.
+     *
+     * @param source     The source code.
+     * @param chunkCount The number of chunks to aim for.
+     * @return The chunks in the order of the source. They are fewer than aimed for if there are not enough keywords.
+     */
+    private static List<Chunk> split(String source, int chunkCount) {
+        final int targetLength = source.length() / chunkCount;
+        final List<Chunk> chunks = new ArrayList<>();
+        int chunkStart = 0;
+        long chunkPosition = Position.of(1, 1);
+        boolean keywordSeen = false;
+        int depth = 0;
+
+        int i = 0;
+        while (i < source.length()) {
+            final char c = source.charAt(i);
+            if (c == '/' && i + 1 < source.length() && source.charAt(i + 1) == '/') {
+                while (i < source.length() && !isLineTerminator(source.charAt(i))) i++;
+            } else if (c == '\'') {
+                i += characterLiteralLength(source, i);
+            } else if (c == '{') {
+                depth++;
+                i++;
+            } else if (c == '}') {
+                depth--;
+                i++;
+            } else if (isDigit(c)) {
+                i = numberEnd(source, i);
+            } else if (isIdentifierStart(c)) {
+                final int end = identifierEnd(source, i);
+                if (depth == 0 && isDeclarationKeyword(source, i, end)) {
+                    if (keywordSeen && i - chunkStart >= targetLength) {
+                        chunks.add(new Chunk(source.substring(chunkStart, i), chunkPosition));
+                        chunkPosition = advance(chunkPosition, source, chunkStart, i);
+                        chunkStart = i;
+                    }
+                    keywordSeen = true;
+                }
+                i = end;
+            } else {
+                i++;
+            }
+        }
+        chunks.add(new Chunk(source.substring(chunkStart), chunkPosition));
+        return chunks;
+    }
+
+    /**
+     * @return The length of the character literal starting at the given index, matched like by the scanner, or 1 if
+     * there is none. The scanner reports an error in that case.
+     */
+    private static int characterLiteralLength(String source, int start) {
+        if (source.startsWith("'\\n'", start)) return 4;
+        if (start + 2 < source.length() && source.charAt(start + 1) != '\r' && source.charAt(start + 1) != '\n'
+                && source.charAt(start + 2) == '\'') {
+            return 3;
+        }
+        return 1;
+    }
+
+    /**
+     * @return The end of the decimal or hexadecimal literal starting at the given index, matched like by the scanner.
+     */
+    private static int numberEnd(String source, int start) {
+        if (source.startsWith("0x", start) && start + 2 < source.length() && isHexDigit(source.charAt(start + 2))) {
+            int end = start + 2;
+            while (end < source.length() && isHexDigit(source.charAt(end))) end++;
+            return end;
+        }
+        int end = start;
+        while (end < source.length() && isDigit(source.charAt(end))) end++;
+        return end;
+    }
+
+    private static int identifierEnd(String source, int start) {
+        int end = start + 1;
+        while (end < source.length() && (isIdentifierStart(source.charAt(end)) || isDigit(source.charAt(end)))) end++;
+        return end;
+    }
+
+    private static boolean isDeclarationKeyword(String source, int start, int end) {
+        return end - start == 4 && (source.startsWith("proc", start) || source.startsWith("type", start));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isHexDigit(char c) {
+        return isDigit(c) || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '_';
+    }
+
+    /**
+     * @return Whether a character ends a line, for the scanner as well as for the comments it skips.
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u000B' || c == '\u000C' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Moves a position over a part of the source, counting lines and columns like the scanner.
+     *
+     * @param position The position of the first character of the part.
+     * @return The position of the character following the part.
+     */
+    private static long advance(long position, String source, int from, int to) {
+        int line = Position.line(position);
+        int column = Position.column(position);
+        for (int i = from; i < to; i++) {
+            final char c = source.charAt(i);
+            if (c == '\r' && i + 1 < to && source.charAt(i + 1) == '\n') i++;
+            else if (!isLineTerminator(c)) {
+                column++;
+                continue;
+            }
+            line++;
+            column = 1;
+        }
+        return Position.of(line, column);
+    }
+}
@@ -0,0 +1,240 @@
+package de.thm.mni.compilerbau.phases._02_03_parser;
+
+import de.thm.mni.compilerbau.absyn.Position;
+import de.thm.mni.compilerbau.phases._01_scanner.TokenSource;
+import de.thm.mni.compilerbau.utils.SplError;
+import java_cup.runtime.Symbol;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Checks the syntax of a program without building its abstract syntax tree, which is all the '--parse' phase needs.
+ * <p>
+ * The checker recognizes the same language as the {@link Parser} generated by CUP and the {@link DescentParser}, but
+ * creates no nodes and only remembers the current token. Lists and operator chains are read in loops, so only nested
+ * statements, parenthesized expressions and index expressions take stack space. Reading from a
+ * {@link de.thm.mni.compilerbau.phases._01_scanner.Scanner} that reuses its symbols, nothing is allocated per token
+ * and the memory used does not depend on the size of the input.
+ * <p>
+ * Syntax errors are reported at the same token with the same message as by the parsers, since all of them stop at the
+ * first token that can not continue the input read so far. Like the parsers, the checker reads one token ahead, so
+ * scanner errors are thrown at the same point, too.
+ */
+public final class SyntaxChecker {
+    private final TokenSource tokens;
+    /**
+     * The next token to check. Its fields must be read before moving on, since the source may reuse the symbol.
+     */
+    private Symbol token;
+
+    /**
+     * @param tokens The tokens of the whole input.
+     */
+    public SyntaxChecker(TokenSource tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Checks the whole input.
+     *
+     * @throws SplError If the input contains a lexical or syntax error.
+     */
+    public void check() {
+        advance();
+        while (token.sym == Sym.TYPE || token.sym == Sym.PROC) {
+            if (token.sym == Sym.TYPE) typeDeclaration();
+            else procedureDeclaration();
+        }
+        if (token.sym != Sym.EOF) throw syntaxError();
+    }
+
+    private void typeDeclaration() {
+        expect(Sym.TYPE);
+        expect(Sym.IDENT);
+        expect(Sym.EQ);
+        type();
+        expect(Sym.SEMIC);
+    }
+
+    private void type() {
+        while (token.sym == Sym.ARRAY) {
+            advance();
+            expect(Sym.LBRACK);
+            expect(Sym.INTLIT);
+            expect(Sym.RBRACK);
+            expect(Sym.OF);
+        }
+        expect(Sym.IDENT);
+    }
+
+    private void procedureDeclaration() {
+        expect(Sym.PROC);
+        expect(Sym.IDENT);
+        expect(Sym.LPAREN);
+        if (token.sym == Sym.IDENT || token.sym == Sym.REF) {
+            parameterDeclaration();
+            while (token.sym == Sym.COMMA) {
+                advance();
+                parameterDeclaration();
+            }
+        }
+        expect(Sym.RPAREN);
+        expect(Sym.LCURL);
+        while (token.sym == Sym.VAR) variableDeclaration();
+        statements();
+        expect(Sym.RCURL);
+    }
+
+    private void parameterDeclaration() {
+        if (token.sym == Sym.REF) advance();
+        expect(Sym.IDENT);
+        expect(Sym.COLON);
+        type();
+    }
+
+    private void variableDeclaration() {
+        expect(Sym.VAR);
+        expect(Sym.IDENT);
+        expect(Sym.COLON);
+        type();
+        expect(Sym.SEMIC);
+    }
+
+    /**
+     * Checks statements up to the first token that can not start a statement.
+     */
+    private void statements() {
+        while (token.sym == Sym.IDENT || token.sym == Sym.LCURL || token.sym == Sym.IF || token.sym == Sym.WHILE || token.sym == Sym.SEMIC) {
+            statement();
+        }
+    }
+
+    private void statement() {
+        switch (token.sym) {
+            case Sym.IDENT -> {
+                advance();
+                if (token.sym == Sym.LPAREN) {
+                    arguments();
+                } else {
+                    indices();
+                    expect(Sym.ASGN);
+                    expression();
+                }
+                expect(Sym.SEMIC);
+            }
+            case Sym.LCURL -> {
+                advance();
+                statements();
+                expect(Sym.RCURL);
+            }
+            case Sym.IF -> {
+                advance();
+                condition();
+                statement();
+                if (token.sym == Sym.ELSE) {
+                    advance();
+                    statement();
+                }
+            }
+            case Sym.WHILE -> {
+                advance();
+                condition();
+                statement();
+            }
+            case Sym.SEMIC -> advance();
+            default -> throw syntaxError();
+        }
+    }
+
+    private void condition() {
+        expect(Sym.LPAREN);
+        expression();
+        expect(Sym.RPAREN);
+    }
+
+    private void arguments() {
+        expect(Sym.LPAREN);
+        if (token.sym == Sym.LPAREN || token.sym == Sym.INTLIT || token.sym == Sym.IDENT || token.sym == Sym.MINUS) {
+            expression();
+            while (token.sym == Sym.COMMA) {
+                advance();
+                expression();
+            }
+        }
+        expect(Sym.RPAREN);
+    }
+
+    /**
+     * Checks the index expressions following the name of a variable.
+     */
+    private void indices() {
+        while (token.sym == Sym.LBRACK) {
+            advance();
+            expression();
+            expect(Sym.RBRACK);
+        }
+    }
+
+    /**
+     * Checks an expression. All binary operators are left associative, so the precedences only decide the shape of
+     * the tree and not which inputs are valid: An expression is a chain of operands joined by binary operators.
+     */
+    private void expression() {
+        operand();
+        while (isBinaryOperator(token.sym)) {
+            advance();
+            operand();
+        }
+    }
+
+    private void operand() {
+        while (token.sym == Sym.MINUS) advance();
+        switch (token.sym) {
+            case Sym.LPAREN -> {
+                advance();
+                expression();
+                expect(Sym.RPAREN);
+            }
+            case Sym.INTLIT -> advance();
+            case Sym.IDENT -> {
+                advance();
+                indices();
+            }
+            default -> throw syntaxError();
+        }
+    }
+
+    private static boolean isBinaryOperator(int kind) {
+        return switch (kind) {
+            case Sym.LT, Sym.LE, Sym.EQ, Sym.GE, Sym.GT, Sym.NE, Sym.PLUS, Sym.MINUS, Sym.STAR, Sym.SLASH -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Moves on to the next token. Like the parsers, the token following a consumed one is read right away, so a
+     * scanner error is thrown at the same point.
+     */
+    private void advance() {
+        try {
+            token = tokens.next_token();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Consumes the next token, which must be of the given kind.
+     *
+     * @throws SplError If the next token is of another kind.
+     */
+    private void expect(int kind) {
+        if (token.sym != kind) throw syntaxError();
+        advance();
+    }
+
+    private SplError syntaxError() {
+        return SplError.SyntaxError(Position.of(token.left, token.right), tokens.yytext());
+    }
+}
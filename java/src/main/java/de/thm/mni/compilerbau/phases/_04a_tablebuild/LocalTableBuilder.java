@@ -0,0 +1,113 @@
+package de.thm.mni.compilerbau.phases._04a_tablebuild;
+
+import de.thm.mni.compilerbau.absyn.ArrayTypeExpression;
+import de.thm.mni.compilerbau.absyn.NamedTypeExpression;
+import de.thm.mni.compilerbau.absyn.ProcedureDeclaration;
+import de.thm.mni.compilerbau.absyn.VariableDeclaration;
+import de.thm.mni.compilerbau.absyn.visitor.DoNothingVisitor;
+import de.thm.mni.compilerbau.table.*;
+import de.thm.mni.compilerbau.types.ArrayType;
+import de.thm.mni.compilerbau.types.Type;
+import de.thm.mni.compilerbau.utils.SplError;
+
+import java.util.Map;
+
+/**
+ * The second pass of the table building for a single procedure: Enters the local variables into the local table of
+ * the procedure, whose parameters were already entered by the {@link SymbolTableVisitor}.
+ * <p>
+ * The builders of different procedures only share the global table, which is not modified anymore during this pass,
+ * so they can run in parallel. At this point the global table already contains the declarations following the
+ * procedure, which were not visible yet when the procedure was declared. They are hidden from the type lookups and
+ * from the listing using the index of their declaration.
+ */
+class LocalTableBuilder extends DoNothingVisitor {
+    private final ProcedureDeclaration declaration;
+    private final ProcedureEntry entry;
+    private final SymbolTable globalTable;
+    private final int declarationIndex;
+    private final Map<Identifier, Integer> declarationIndices;
+    private Type type;
+
+    /**
+     * @param declaration        The declaration of the procedure.
+     * @param entry              The entry of the procedure holding its local table.
+     * @param globalTable        The global table.
+     * @param declarationIndex   The index of the procedure in the declarations of the program.
+     * @param declarationIndices The indices of the declarations of all global symbols by their name.
+     *                           Predefined symbols are not contained.
+     */
+    LocalTableBuilder(ProcedureDeclaration declaration, ProcedureEntry entry, SymbolTable globalTable, int declarationIndex,
+                      Map<Identifier, Integer> declarationIndices) {
+        this.declaration = declaration;
+        this.entry = entry;
+        this.globalTable = globalTable;
+        this.declarationIndex = declarationIndex;
+        this.declarationIndices = declarationIndices;
+    }
+
+    ProcedureDeclaration declaration() {
+        return declaration;
+    }
+
+    ProcedureEntry entry() {
+        return entry;
+    }
+
+    /**
+     * Enters the local variables into the local table.
+     *
+     * @return The local table formatted for the '--tables' listing, as it would have been printed by a sequential
+     * table builder.
+     * @throws SplError If a variable is declared twice or its type is invalid.
+     */
+    String build() {
+        for (VariableDeclaration variable : declaration.variables) {
+            variable.accept(this);
+        }
+        return entry.localTable.toString(0, name -> declarationIndices.getOrDefault(name, -1) <= declarationIndex);
+    }
+
+    /**
+     * Looks up a symbol like {@link SymbolTable#lookup(Identifier)}, ignoring global symbols declared after the
+     * procedure.
+     */
+    private Entry lookup(Identifier name) {
+        final Entry found = entry.localTable.lookup(name);
+        if (found != null && found == globalTable.lookup(name) && declarationIndices.getOrDefault(name, -1) >= declarationIndex) {
+            return null;
+        }
+        return found;
+    }
+
+    public void visit(VariableDeclaration variableDeclaration) {
+        variableDeclaration.typeExpression.accept(this);
+        VariableEntry variableEntry = new VariableEntry(type, false);
+
+        Entry testEntry = lookup(variableDeclaration.name);
+        if (testEntry != null) {
+            if (testEntry instanceof VariableEntry) {
+                throw SplError.RedeclarationAsVariable(variableDeclaration.position, variableDeclaration.name);
+            }
+        }
+
+        entry.localTable.enter(variableDeclaration.name, variableEntry);
+    }
+
+    public void visit(NamedTypeExpression namedTypeExpression) {
+        Entry typeEntry = lookup(namedTypeExpression.name);
+        if (typeEntry == null) {
+            throw SplError.UndefinedType(namedTypeExpression.position, namedTypeExpression.name);
+        }
+        if (!(typeEntry instanceof TypeEntry)) {
+            throw SplError.NotAType(namedTypeExpression.position, namedTypeExpression.name);
+        }
+        namedTypeExpression.entry = (TypeEntry) typeEntry;
+        type = namedTypeExpression.entry.type;
+    }
+
+    public void visit(ArrayTypeExpression arrayTy) {
+        arrayTy.baseType.accept(this);
+        type = new ArrayType(type, arrayTy.arraySize);
+    }
+}
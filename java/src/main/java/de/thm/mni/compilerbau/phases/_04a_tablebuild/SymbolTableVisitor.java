@@ -9,18 +9,38 @@ import de.thm.mni.compilerbau.types.Type;
 import de.thm.mni.compilerbau.utils.SplError;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
+/**
+ * The first, sequential pass of the table building: Enters all type declarations and the signatures of all procedures
+ * into the global table. The local tables of the procedures only get their parameters, the local variables are
+ * entered by a {@link LocalTableBuilder} for each procedure afterwards.
+ */
 public class SymbolTableVisitor extends DoNothingVisitor {
     private SymbolTable symbolTable;
     private Type type;
     private List<ParameterType> paramList;
 
+    private final Map<Identifier, Integer> declarationIndices = new HashMap<>();
+    private final List<LocalTableBuilder> localTableBuilders = new ArrayList<>();
+    private int declarationIndex = -1;
+
     public SymbolTableVisitor(SymbolTable symbolTable) {
         this.symbolTable = symbolTable;
     }
 
+    /**
+     * @return The builders for the local tables of all procedures whose signature was entered, in the order of their
+     * declaration. If the pass failed, this includes the procedure that failed the redeclaration check, because its
+     * local variables are checked before its name.
+     */
+    List<LocalTableBuilder> localTableBuilders() {
+        return localTableBuilders;
+    }
+
     public void visit(Program program) {
         for (GlobalDeclaration decl : program.declarations) {
             decl.accept(this);
@@ -28,6 +48,7 @@ public class SymbolTableVisitor extends DoNothingVisitor {
     }
 
     public void visit(TypeDeclaration typeDeclaration) {
+        declarationIndex++;
         typeDeclaration.typeExpression.accept(this);
         TypeEntry entry = new TypeEntry(type);
 
@@ -37,20 +58,7 @@ public class SymbolTableVisitor extends DoNothingVisitor {
         }
 
         symbolTable.enter(typeDeclaration.name, entry);
-    }
-
-    public void visit(VariableDeclaration variableDeclaration) {
-        variableDeclaration.typeExpression.accept(this);
-        VariableEntry entry = new VariableEntry(type, false);
-
-        Entry testEntry = symbolTable.lookup(variableDeclaration.name);
-        if (testEntry != null) {
-            if (testEntry instanceof VariableEntry) {
-                throw SplError.RedeclarationAsVariable(variableDeclaration.position, variableDeclaration.name);
-            }
-        }
-
-        symbolTable.enter(variableDeclaration.name, entry);
+        declarationIndices.put(typeDeclaration.name, declarationIndex);
     }
 
     /*
@@ -115,15 +123,13 @@ public class SymbolTableVisitor extends DoNothingVisitor {
 
 
     public void visit(ProcedureDeclaration procDec) {
+        declarationIndex++;
         SymbolTable parentTable = symbolTable;
         symbolTable = new SymbolTable(symbolTable);
         paramList = new ArrayList<>();
         for (ParameterDeclaration parameter : procDec.parameters) {
             parameter.accept(this);
         }
-        for (VariableDeclaration variable : procDec.variables) {
-            variable.accept(this);
-        }
 
         /*
         for (ParameterDeclaration parameter : procDec.parameters) {
@@ -134,6 +140,7 @@ public class SymbolTableVisitor extends DoNothingVisitor {
         ProcedureEntry entry = new ProcedureEntry(symbolTable, paramList);
         symbolTable = parentTable;
         paramList = null;
+        localTableBuilders.add(new LocalTableBuilder(procDec, entry, symbolTable, declarationIndex, declarationIndices));
 
         Entry testEntry = symbolTable.lookup(procDec.name);
         if (testEntry != null) {
@@ -141,8 +148,7 @@ public class SymbolTableVisitor extends DoNothingVisitor {
         }
 
         symbolTable.enter(procDec.name, entry);
-
-        TableBuilder.printSymbolTableAtEndOfProcedure(procDec.name, entry);
+        declarationIndices.put(procDec.name, declarationIndex);
     }
 
     public void visit(ParameterDeclaration parameterDeclaration) {
@@ -171,6 +177,7 @@ public class SymbolTableVisitor extends DoNothingVisitor {
             throw SplError.NotAType(namedTypeExpression.position, namedTypeExpression.name);
         }
         TypeEntry typeEntry = (TypeEntry)entry;
+        namedTypeExpression.entry = typeEntry;
         type = typeEntry.type;
     }
 
@@ -6,10 +6,14 @@ import de.thm.mni.compilerbau.absyn.Program;
 import de.thm.mni.compilerbau.absyn.TypeExpression;
 import de.thm.mni.compilerbau.absyn.Variable;
 import de.thm.mni.compilerbau.table.Identifier;
-import de.thm.mni.compilerbau.table.ProcedureEntry;
 import de.thm.mni.compilerbau.table.SymbolTable;
 import de.thm.mni.compilerbau.types.Type;
 import de.thm.mni.compilerbau.utils.NotImplemented;
+import de.thm.mni.compilerbau.utils.Parallel;
+import de.thm.mni.compilerbau.utils.SplError;
+
+import java.io.PrintWriter;
+import java.util.List;
 
 /**
  * This class is used to create and populate a {@link SymbolTable} containing entries for every symbol in the currently
@@ -21,27 +25,74 @@ import de.thm.mni.compilerbau.utils.NotImplemented;
  */
 public class TableBuilder {
     private final CommandLineOptions options;
+    private final PrintWriter listing;
 
     public TableBuilder(CommandLineOptions options) {
+        this(options, new PrintWriter(System.out, true));
+    }
+
+    /**
+     * @param options The command line options passed to the compiler
+     * @param listing The writer the symbol tables are printed to.
+     */
+    public TableBuilder(CommandLineOptions options, PrintWriter listing) {
         this.options = options;
+        this.listing = listing;
     }
 
+    /**
+     * Builds the symbol table in two passes: The {@link SymbolTableVisitor} sequentially enters all types and procedure
+     * signatures into the global table, then a {@link LocalTableBuilder} for each procedure enters its local
+     * variables. The local tables are built in parallel and printed in the order of the procedures afterwards.
+     * <p>
+     * Errors are reported as by a single sequential pass: The first error in source order is thrown and the listing
+     * contains the tables of all procedures before it.
+     *
+     * @param program The program to build the table for.
+     * @return The global table of the program.
+     */
     public SymbolTable buildSymbolTable(Program program) {
         //TODO (assignment 4a): Initialize a symbol table with all predefined symbols and fill it with user-defined symbols
         SymbolTable globalTable = TableInitializer.initializeGlobalTable(options);
-        program.accept(new SymbolTableVisitor(globalTable));
-        return  globalTable;
+        SymbolTableVisitor signatures = new SymbolTableVisitor(globalTable);
+        SplError signatureError = null;
+        try {
+            program.accept(signatures);
+        } catch (SplError error) {
+            signatureError = error;
+        }
+
+        record LocalTable(String listing, SplError error) {
+        }
+        final List<LocalTableBuilder> builders = signatures.localTableBuilders();
+        final List<LocalTable> localTables = Parallel.map(builders, builder -> {
+            try {
+                return new LocalTable(builder.build(), null);
+            } catch (SplError error) {
+                return new LocalTable(null, error);
+            }
+        });
+
+        for (int i = 0; i < builders.size(); i++) {
+            if (localTables.get(i).error != null) throw localTables.get(i).error;
+            // A procedure failing the redeclaration check is not entered and was never printed.
+            if (globalTable.lookup(builders.get(i).declaration().name) != builders.get(i).entry()) break;
+            printSymbolTableAtEndOfProcedure(listing, builders.get(i).declaration().name, localTables.get(i).listing);
+        }
+        if (signatureError != null) throw signatureError;
+        return globalTable;
     }
 
     /**
      * Prints the local symbol table of a procedure together with a heading-line
      * NOTE: You have to call this after completing the local table to support '--tables'.
      *
-     * @param name  The name of the procedure
-     * @param entry The entry of the procedure to print
+     * @param listing The writer to print the table to
+     * @param name    The name of the procedure
+     * @param table   The formatted local table of the procedure
      */
-    static void printSymbolTableAtEndOfProcedure(Identifier name, ProcedureEntry entry) {
-        System.out.format("Symbol table at end of procedure '%s':\n", name);
-        System.out.println(entry.localTable.toString());
+    static void printSymbolTableAtEndOfProcedure(PrintWriter listing, Identifier name, String table) {
+        listing.format("Symbol table at end of procedure '%s':\n", name);
+        listing.println(table);
     }
 }
@@ -8,8 +8,10 @@ import de.thm.mni.compilerbau.types.ArrayType;
 import de.thm.mni.compilerbau.types.PrimitiveType;
 import de.thm.mni.compilerbau.types.Type;
 import de.thm.mni.compilerbau.utils.NotImplemented;
+import de.thm.mni.compilerbau.utils.Parallel;
 import de.thm.mni.compilerbau.utils.SplError;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -26,14 +28,39 @@ public class ProcedureBodyChecker {
         this.options = options;
     }
 
+    /**
+     * Checks the bodies of all procedures of the program.
+     * The bodies are checked in parallel, see {@link #checkProcedures(List, SymbolTable)}.
+     *
+     * @param program     The program to check.
+     * @param globalTable The symbol table of the whole program.
+     */
     public void checkProcedures(Program program, SymbolTable globalTable) {
         //TODO (assignment 4b): Check all procedure bodies for semantic errors
+        final List<ProcedureDeclaration> procedures = new ArrayList<>();
+        for (GlobalDeclaration declaration : program.declarations) {
+            if (declaration instanceof ProcedureDeclaration procedureDeclaration) procedures.add(procedureDeclaration);
+        }
+        checkProcedures(procedures, globalTable);
+    }
+
+    /**
+     * Checks the bodies of the given procedures only, e.g. because the others are known to be valid.
+     * <p>
+     * A body only reads the global table and its own local table, which are not modified anymore after phase 4a,
+     * so the bodies are checked in parallel. If several bodies contain errors, the error of the first of these
+     * procedures is reported, which is the one a sequential check would have found.
+     *
+     * @param procedures  The procedures to check, in the order of their declaration.
+     * @param globalTable The symbol table of the whole program.
+     */
+    public void checkProcedures(List<ProcedureDeclaration> procedures, SymbolTable globalTable) {
         checkForMain(globalTable);
-        program.accept(new ProcedureBodyCheckVisitor(globalTable));
+        Parallel.forEach(procedures, procedure -> procedure.accept(new ProcedureBodyCheckVisitor(globalTable)));
     }
 
     private void checkForMain(SymbolTable globalTable) {
-        Entry entry = globalTable.lookup(new Identifier("main"));
+        Entry entry = globalTable.lookup(Identifier.predefined("main"));
         if (entry == null) {
             throw SplError.MainIsMissing();
         }
@@ -116,6 +143,7 @@ public class ProcedureBodyChecker {
                 throw SplError.CallOfNonProcedure(callStatement.position, callStatement.procedureName);
             }
             ProcedureEntry procedureEntry = (ProcedureEntry) entry;
+            callStatement.entry = procedureEntry;
             List<ParameterType> parameters = procedureEntry.parameterTypes;
             int counter = 0;
             for (Expression expression : callStatement.arguments) {
@@ -195,7 +223,8 @@ public class ProcedureBodyChecker {
             if (!(entry instanceof VariableEntry)) {
                 throw SplError.NotAVariable(var.position, var.name);
             }
-            var.dataType = ((VariableEntry)entry).type;
+            var.entry = (VariableEntry) entry;
+            var.dataType = var.entry.type;
         }
 
         public void visit(ArrayAccess array) {
@@ -57,9 +57,6 @@ public class Passage2VarAllocatorVisitor extends DoNothingVisitor {
     }
 
     public void visit(CallStatement call) {
-        Entry entry = table.lookup(call.procedureName);
-        ProcedureEntry procedureEntry = (ProcedureEntry) entry;
-
-        outgoingSize = Math.max(outgoingSize, procedureEntry.stackLayout.argumentAreaSize);
+        outgoingSize = Math.max(outgoingSize, call.entry.stackLayout.argumentAreaSize);
     }
 }
\ No newline at end of file
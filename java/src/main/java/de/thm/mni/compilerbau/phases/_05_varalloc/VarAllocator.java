@@ -8,6 +8,7 @@ import de.thm.mni.compilerbau.table.SymbolTable;
 import de.thm.mni.compilerbau.table.VariableEntry;
 import de.thm.mni.compilerbau.utils.*;
 
+import java.io.PrintWriter;
 import java.util.*;
 import java.util.stream.IntStream;
 
@@ -20,33 +21,63 @@ public class VarAllocator {
     public static final int REFERENCE_BYTESIZE = 4;
 
     private final CommandLineOptions options;
+    private final PrintWriter listing;
 
     /**
      * @param options The options passed to the compiler
      */
     public VarAllocator(CommandLineOptions options) {
+        this(options, new PrintWriter(System.out, true));
+    }
+
+    /**
+     * @param options The options passed to the compiler
+     * @param listing The writer the variable allocation is printed to.
+     */
+    public VarAllocator(CommandLineOptions options, PrintWriter listing) {
         this.options = options;
+        this.listing = listing;
     }
 
     public void allocVars(Program program, SymbolTable table) {
         //TODO (assignment 5): Allocate stack slots for all parameters and local variables
-        program.accept(new Passage1VarAllocatorVisitor(table));
-        program.accept(new Passage2VarAllocatorVisitor(table));
-
-        //TODO: Uncomment this when the above exception is removed!
-        formatVars(program, table);
+        final List<ProcedureDeclaration> procedures = new ArrayList<>();
+        for (GlobalDeclaration declaration : program.declarations) {
+            if (declaration instanceof ProcedureDeclaration procedureDeclaration) procedures.add(procedureDeclaration);
+        }
+        allocVars(program, table, procedures);
         //No idea what showVarAlloc is supposed to be. It's only here???
         //if (showVarAlloc) formatVars(program, table);
     }
 
+    /**
+     * Allocates stack slots for the given procedures only. The stack layouts of all other procedures and the offsets
+     * of their parameters and variables must have been set before.
+     * <p>
+     * Both passes are run for all procedures in parallel. The first pass only touches the entries of the procedure
+     * itself, the second pass also reads the argument area sizes of the called procedures, so it starts after the
+     * first pass has been completed for every procedure.
+     *
+     * @param program    The abstract syntax tree of the program. The allocation of all procedures is printed.
+     * @param table      The symbol table containing all symbols of the spl program
+     * @param procedures The procedures to allocate the variables of.
+     */
+    public void allocVars(Program program, SymbolTable table, List<ProcedureDeclaration> procedures) {
+        Parallel.forEach(procedures, procedure -> procedure.accept(new Passage1VarAllocatorVisitor(table)));
+        Parallel.forEach(procedures, procedure -> procedure.accept(new Passage2VarAllocatorVisitor(table)));
+
+        formatVars(program, table, listing);
+    }
+
     /**
      * Formats and prints the variable allocation to a human-readable format
      * The stack layout
      *
      * @param program The abstract syntax tree of the program
      * @param table   The symbol table containing all symbols of the spl program
+     * @param listing The writer to print the allocation to
      */
-    private static void formatVars(Program program, SymbolTable table) {
+    private static void formatVars(Program program, SymbolTable table, PrintWriter listing) {
         program.declarations.stream().filter(dec -> dec instanceof ProcedureDeclaration).map(dec -> (ProcedureDeclaration) dec).forEach(procDec -> {
             ProcedureEntry entry = (ProcedureEntry) table.lookup(procDec.name);
 
@@ -117,16 +148,16 @@ public class VarAllocator {
                 ascii.line("...", AsciiGraphicalTableBuilder.Alignment.CENTER);
             }
 
-            System.out.printf("Variable allocation for procedure '%s':\n", procDec.name);
-            System.out.printf("  - size of argument area = %s\n", StringOps.toString(entry.stackLayout.argumentAreaSize));
-            System.out.printf("  - size of localvar area = %s\n", StringOps.toString(entry.stackLayout.localVarAreaSize));
-            System.out.printf("  - size of outgoing area = %s\n", StringOps.toString(entry.stackLayout.outgoingAreaSize));
-            System.out.printf("  - frame size = %s\n", Try.execute(entry.stackLayout::frameSize).map(Objects::toString).getOrElse("UNKNOWN"));
-            System.out.println();
-            if (isLeafOptimized) System.out.println("  Stack layout (leaf optimized):");
-            else System.out.println("  Stack layout:");
-            System.out.println(StringOps.indent(ascii.toString(), 4));
-            System.out.println();
+            listing.printf("Variable allocation for procedure '%s':\n", procDec.name);
+            listing.printf("  - size of argument area = %s\n", StringOps.toString(entry.stackLayout.argumentAreaSize));
+            listing.printf("  - size of localvar area = %s\n", StringOps.toString(entry.stackLayout.localVarAreaSize));
+            listing.printf("  - size of outgoing area = %s\n", StringOps.toString(entry.stackLayout.outgoingAreaSize));
+            listing.printf("  - frame size = %s\n", Try.execute(entry.stackLayout::frameSize).map(Objects::toString).getOrElse("UNKNOWN"));
+            listing.println();
+            if (isLeafOptimized) listing.println("  Stack layout (leaf optimized):");
+            else listing.println("  Stack layout:");
+            listing.println(StringOps.indent(ascii.toString(), 4));
+            listing.println();
         });
     }
 }
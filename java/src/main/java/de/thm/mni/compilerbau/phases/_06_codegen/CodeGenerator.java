@@ -4,9 +4,14 @@ import de.thm.mni.compilerbau.CommandLineOptions;
 import de.thm.mni.compilerbau.absyn.*;
 import de.thm.mni.compilerbau.table.SymbolTable;
 import de.thm.mni.compilerbau.utils.NotImplemented;
+import de.thm.mni.compilerbau.utils.Parallel;
+import de.thm.mni.compilerbau.utils.SplError;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This class is used to generate the assembly code for the compiled program.
@@ -27,21 +32,70 @@ public class CodeGenerator {
         this.output = new CodePrinter(output);
     }
 
+    /**
+     * Generates the code of all procedures of the program in parallel and emits it in the order of their declaration.
+     * Every procedure is generated relocatably by {@link #generateProcedure(ProcedureDeclaration, SymbolTable)}, so the
+     * output does not depend on the order in which the procedures are generated.
+     *
+     * @param program The program to generate the code for.
+     * @param table   The global symbol table of the program.
+     */
     public void generateCode(Program program, SymbolTable table) {
-        assemblerProlog();
-
         //TODO (assignment 6): generate eco32 assembler code for the spl program
+        final List<ProcedureDeclaration> procedures = new ArrayList<>();
+        for (GlobalDeclaration declaration : program.declarations) {
+            if (declaration instanceof ProcedureDeclaration procedureDeclaration) procedures.add(procedureDeclaration);
+        }
+        emitProcedures(Parallel.map(procedures, procedure -> generateProcedure(procedure, table)));
+    }
 
+    /**
+     * Generates the code of a single procedure without emitting it.
+     * The result does not depend on the other procedures, so it can be generated concurrently with them and reused for
+     * every program containing the procedure with the same symbol table entries.
+     *
+     * @param procedure The declaration of the procedure. The semantic analysis and the variable allocation must have
+     *                  been performed for it.
+     * @param table     The global symbol table.
+     * @return The relocatable code of the procedure.
+     */
+    public static ProcedureCode generateProcedure(ProcedureDeclaration procedure, SymbolTable table) {
+        final StringWriter code = new StringWriter();
+        final CodePrinter printer = new CodePrinter(new PrintWriter(code), true);
+        final LastVisitor visitor = new LastVisitor(table, printer);
         try {
-            program.accept(new LastVisitor(table, output));
+            procedure.accept(visitor);
         } catch (LastVisitor.RegisterStackException e) {
-            //output.flush();
-            //output.close();
-            System.out.println("Error: " + e.getMessage());
-            System.exit(1);
+            throw SplError.RegisterOverflow();
+        }
+        return new ProcedureCode(code.toString(), visitor.labelCount(), visitor.registerDrift(), printer.instructionCount());
+    }
+
+    /**
+     * Emits the code of a program whose procedures were generated separately.
+     * The output is the same as the one of {@link #generateCode(Program, SymbolTable)}.
+     *
+     * @param procedures The code of all procedures in the order of their declaration.
+     */
+    public void emitProcedures(List<ProcedureCode> procedures) {
+        assemblerProlog();
+
+        int label = 0;
+        int registerShift = 0;
+        for (ProcedureCode procedure : procedures) {
+            output.emitCode(procedure.relocate(label, registerShift), procedure.instructionCount());
+            label += procedure.labelCount();
+            registerShift += procedure.registerDrift();
         }
     }
 
+    /**
+     * @return The number of instructions emitted so far.
+     */
+    public int emittedInstructions() {
+        return output.instructionCount();
+    }
+
     /**
      * Emits needed import statements, to allow usage of the predefined functions and sets the correct settings
      * for the assembler.
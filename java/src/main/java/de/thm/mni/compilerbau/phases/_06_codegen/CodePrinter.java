@@ -4,48 +4,81 @@ import java.io.PrintWriter;
 
 class CodePrinter {
     private final PrintWriter outputFile;
+    private final boolean relocatable;
+    private int instructionCount = 0;
 
     CodePrinter(PrintWriter outputFile) {
+        this(outputFile, false);
+    }
+
+    /**
+     * @param outputFile  The writer to print the code to.
+     * @param relocatable Whether to print labels and registers with markers, so the code can be moved to another
+     *                    position of the program with {@link ProcedureCode#relocate(int, int)}.
+     */
+    CodePrinter(PrintWriter outputFile, boolean relocatable) {
         this.outputFile = outputFile;
+        this.relocatable = relocatable;
+    }
+
+    boolean isRelocatable() {
+        return relocatable;
+    }
+
+    /**
+     * @return The number of instructions emitted so far. Labels and assembler directives are not counted.
+     */
+    int instructionCount() {
+        return instructionCount;
     }
 
     void emitInstruction(String opcode, Register r1, Register r2, Register r3) {
+        instructionCount++;
         outputFile.printf("\t%s\t%s,%s,%s\n", opcode, r1, r2, r3);
     }
 
     void emitInstruction(String opcode, Register r1, Register r2, int value) {
+        instructionCount++;
         outputFile.printf("\t%s\t%s,%s,%d\n", opcode, r1, r2, value);
     }
 
     void emitInstruction(String opcode, Register r1, Register r2, String label) {
+        instructionCount++;
         outputFile.printf("\t%s\t%s,%s,%s\n", opcode, r1, r2, label);
     }
 
     void emitInstruction(String opcode, Register r1) {
+        instructionCount++;
         outputFile.printf("\t%s\t%s\n", opcode, r1);
     }
 
     void emitInstruction(String opcode, String label) {
+        instructionCount++;
         outputFile.printf("\t%s\t%s\n", opcode, label);
     }
 
     void emitInstruction(String opcode, Register r1, Register r2, Register r3, String comment) {
+        instructionCount++;
         outputFile.printf("\t%s\t%s,%s,%s\t\t; %s\n", opcode, r1, r2, r3, comment);
     }
 
     void emitInstruction(String opcode, Register r1, Register r2, int value, String comment) {
+        instructionCount++;
         outputFile.printf("\t%s\t%s,%s,%d\t\t; %s\n", opcode, r1, r2, value, comment);
     }
 
     void emitInstruction(String opcode, Register r1, Register r2, String label, String comment) {
+        instructionCount++;
         outputFile.printf("\t%s\t%s,%s,%s\t\t; %s\n", opcode, r1, r2, label, comment);
     }
 
     void emitInstruction(String opcode, Register r1, String comment) {
+        instructionCount++;
         outputFile.printf("\t%s\t%s\t\t\t; %s\n", opcode, r1, comment);
     }
 
     void emitInstruction(String opcode, String label, String comment) {
+        instructionCount++;
         outputFile.printf("\t%s\t%s\t\t; %s\n", opcode, label, comment);
     }
 
@@ -62,7 +95,19 @@ class CodePrinter {
     }
 
     void emit(String str) {
+        if (str.startsWith("\t") && !str.startsWith("\t.")) instructionCount++;
         outputFile.println(str);
     }
+
+    /**
+     * Emits code that was generated and counted before.
+     *
+     * @param code         The code to emit.
+     * @param instructions The number of instructions contained in the code.
+     */
+    void emitCode(String code, int instructions) {
+        instructionCount += instructions;
+        outputFile.print(code);
+    }
 }
 
@@ -23,6 +23,20 @@ public class LastVisitor extends DoNothingVisitor {
         this.printer = printer;
     }
 
+    /**
+     * @return The number of labels created so far.
+     */
+    int labelCount() {
+        return label;
+    }
+
+    /**
+     * @return The number of registers the register stack moved since the start, negative if it moved downwards.
+     */
+    int registerDrift() {
+        return currentTopRegister - FIRST_REGISTER;
+    }
+
     public void visit(Program program) {
         for (GlobalDeclaration decl : program.declarations) {
             decl.accept(this);
@@ -73,8 +87,7 @@ public class LastVisitor extends DoNothingVisitor {
     }
 
     public void visit(CallStatement callStatement) {
-        ProcedureEntry entry = (ProcedureEntry) table.lookup(callStatement.procedureName);
-        List<ParameterType> params = entry.parameterTypes;
+        List<ParameterType> params = callStatement.entry.parameterTypes;
 
         int counter = 0;
         for (Expression expression : callStatement.arguments) {
@@ -111,7 +124,7 @@ public class LastVisitor extends DoNothingVisitor {
     }
 
     public void visit(NamedVariable variable) {
-        VariableEntry entry = (VariableEntry) table.lookup(variable.name);
+        VariableEntry entry = variable.entry;
         if (!entry.isReference) {
             printer.emitInstruction("add", pushRegister(), framePointerRegister, entry.offset);
         } else {
@@ -255,7 +268,8 @@ public class LastVisitor extends DoNothingVisitor {
     }
 
     //Maybe put them in separate class
-    private int currentTopRegister = 8;
+    static final int FIRST_REGISTER = 8;
+    private int currentTopRegister = FIRST_REGISTER;
     private Register getTopRegister() {
         /*
         if (currentTopRegister <= 8) {
@@ -263,7 +277,7 @@ public class LastVisitor extends DoNothingVisitor {
         }
 
          */
-        return new Register(currentTopRegister - 1);
+        return stackRegister(currentTopRegister - 1);
     }
     private Register popRegister() {
         currentTopRegister--;
@@ -273,16 +287,21 @@ public class LastVisitor extends DoNothingVisitor {
         }
 
          */
-        return new Register(currentTopRegister);
+        return stackRegister(currentTopRegister);
     }
     private Register pushRegister() {
         if (currentTopRegister > 23) {
             throw new RegisterStackException("No more register");
         }
-        return new Register(currentTopRegister+1);
+        return stackRegister(currentTopRegister+1);
+    }
+
+    private Register stackRegister(int number) {
+        return new Register(number, printer.isRelocatable());
     }
 
     private String labelName(int labelNumber) {
+        if (printer.isRelocatable()) return "L" + ProcedureCode.relocatableLabel(labelNumber);
         return String.format("L%d", labelNumber);
     }
 }
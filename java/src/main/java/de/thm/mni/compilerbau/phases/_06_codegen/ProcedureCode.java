@@ -0,0 +1,48 @@
+package de.thm.mni.compilerbau.phases._06_codegen;
+
+/**
+ * The code of a single procedure, generated independently of the other procedures of the program.
+ * <p>
+ * The code of a procedure depends on the procedures generated before it: Labels are numbered throughout the whole
+ * program and the register stack does not return to its initial register after a procedure. Therefore the code is
+ * generated as if the procedure was the first one, with every label number and stack register enclosed in markers.
+ * {@link #relocate(int, int)} replaces the markers with the numbers the code gets at its actual position.
+ *
+ * @param template         The code with markers around label and register numbers.
+ * @param labelCount       The number of labels created by the procedure.
+ * @param registerDrift    The number of registers the register stack moves while generating the procedure.
+ * @param instructionCount The number of instructions in the code.
+ */
+public record ProcedureCode(String template, int labelCount, int registerDrift, int instructionCount) {
+    private static final char LABEL_MARKER = '\u0001';
+    private static final char REGISTER_MARKER = '\u0002';
+
+    static String relocatableLabel(int number) {
+        return LABEL_MARKER + Integer.toString(number) + LABEL_MARKER;
+    }
+
+    static String relocatableRegister(int number) {
+        return REGISTER_MARKER + Integer.toString(number) + REGISTER_MARKER;
+    }
+
+    /**
+     * @param firstLabel    The number of the first label of this procedure.
+     * @param registerShift The number of registers the register stack moved during the preceding procedures.
+     * @return The code of the procedure at the given position.
+     */
+    String relocate(int firstLabel, int registerShift) {
+        final StringBuilder code = new StringBuilder(template.length());
+        int start = 0;
+        for (int i = 0; i < template.length(); i++) {
+            final char c = template.charAt(i);
+            if (c != LABEL_MARKER && c != REGISTER_MARKER) continue;
+
+            final int end = template.indexOf(c, i + 1);
+            final int number = Integer.parseInt(template, i + 1, end, 10);
+            code.append(template, start, i).append(number + (c == LABEL_MARKER ? firstLabel : registerShift));
+            start = end + 1;
+            i = end;
+        }
+        return code.append(template, start, template.length()).toString();
+    }
+}
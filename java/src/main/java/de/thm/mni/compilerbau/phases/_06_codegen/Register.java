@@ -2,9 +2,19 @@ package de.thm.mni.compilerbau.phases._06_codegen;
 
 class Register {
     final int number;
+    /**
+     * Whether the number of this register depends on the code generated for the preceding procedures.
+     * Such registers are printed with markers, see {@link ProcedureCode}.
+     */
+    final boolean relocatable;
 
     Register(int number) {
+        this(number, false);
+    }
+
+    Register(int number, boolean relocatable) {
         this.number = number;
+        this.relocatable = relocatable;
     }
 
     /**
@@ -44,6 +54,6 @@ class Register {
 
     @Override
     public String toString() {
-        return "$" + number;
+        return "$" + (relocatable ? ProcedureCode.relocatableRegister(number) : Integer.toString(number));
     }
 }
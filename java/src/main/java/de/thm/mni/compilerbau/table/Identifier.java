@@ -2,23 +2,38 @@ package de.thm.mni.compilerbau.table;
 
 /**
  * Represents an identifier in SPL.
- * Implements string interning internally to speed up lookups in symbol tables.
+ * <p>
+ * Identifiers are obtained from the {@link IdentifierPool} of a compilation, which hands out a single canonical
+ * instance per name together with a dense integer id. Identifiers are therefore compared by reference: Two identifiers
+ * are only equal if they are the same instance, so all identifiers that are compared with each other, e.g. the ones in
+ * a symbol table, have to be taken from the same pool.
  */
 public class Identifier {
     private final String identifier;
+    private final int id;
 
-    public Identifier(String identifier) {
-        //Intern the identifier.
-        //This way string equality in table lookups can be determined by only comparing the references.
-        this.identifier = identifier.intern();
+    /**
+     * @param identifier The name of the identifier.
+     * @param id         The id of the identifier in its pool.
+     */
+    Identifier(String identifier, int id) {
+        this.identifier = identifier;
+        this.id = id;
     }
 
-    public int hashCode() {
-        return identifier.hashCode();
+    /**
+     * @param identifier A predefined name, see {@link IdentifierPool}.
+     * @return The canonical identifier with this name, which is the same in all compilations.
+     */
+    public static Identifier predefined(String identifier) {
+        return IdentifierPool.predefined(identifier);
     }
 
-    public boolean equals(Object other) {
-        return other instanceof Identifier && ((Identifier) other).identifier.equals(identifier);
+    /**
+     * @return The dense id of this identifier in its pool.
+     */
+    public int id() {
+        return id;
     }
 
     @Override
@@ -0,0 +1,83 @@
+package de.thm.mni.compilerbau.table;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out one canonical {@link Identifier} per name, numbered with dense integer ids in the order of their creation.
+ * <p>
+ * Unlike {@link String#intern()} the pool does not use the string table of the JVM, so a lookup does not contend with
+ * every other interned string of the process. Every compilation uses a pool of its own, which is released together
+ * with the program, so a long-running compile server does not accumulate the names of all programs it has seen.
+ * <p>
+ * The names the compiler itself refers to, i.e. the predefined types and procedures and the main procedure, are shared
+ * by all compilations, just like the symbol table of the predefined symbols. They are kept in a frozen pool, which
+ * every other pool hands out these names from. The ids of a pool continue after the ones of the predefined names, so
+ * the ids of all identifiers of a compilation are distinct.
+ * <p>
+ * A pool can be used from many threads concurrently.
+ */
+public final class IdentifierPool {
+    private static final List<String> PREDEFINED_NAMES = List.of(
+            "int", "printi", "printc", "readi", "readc", "exit", "time", "clearAll", "setPixel", "drawLine", "drawCircle",
+            "main");
+
+    private static final IdentifierPool predefined = createPredefined();
+
+    private final IdentifierPool base;
+    private final ConcurrentHashMap<String, Identifier> identifiers = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId;
+    private boolean frozen = false;
+
+    /**
+     * Creates an empty pool for the names of a single compilation.
+     */
+    public IdentifierPool() {
+        this(predefined);
+    }
+
+    private IdentifierPool(IdentifierPool base) {
+        this.base = base;
+        this.nextId = new AtomicInteger(base != null ? base.size() : 0);
+    }
+
+    private static IdentifierPool createPredefined() {
+        final IdentifierPool pool = new IdentifierPool(null);
+        for (String name : PREDEFINED_NAMES) pool.get(name);
+        pool.frozen = true;
+        return pool;
+    }
+
+    /**
+     * @param name A predefined name.
+     * @return The canonical identifier with this name, which all pools hand out.
+     * @throws IllegalArgumentException If the name is not predefined.
+     */
+    public static Identifier predefined(String name) {
+        return predefined.get(name);
+    }
+
+    /**
+     * @param name The name of the identifier.
+     * @return The canonical identifier with this name.
+     */
+    public Identifier get(String name) {
+        if (base != null) {
+            final Identifier identifier = base.identifiers.get(name);
+            if (identifier != null) return identifier;
+        }
+
+        final Identifier identifier = identifiers.get(name);
+        if (identifier != null) return identifier;
+        if (frozen) throw new IllegalArgumentException("'" + name + "' is not a predefined name");
+        return identifiers.computeIfAbsent(name, key -> new Identifier(key, nextId.getAndIncrement()));
+    }
+
+    /**
+     * @return The number of names in the pool, including the predefined names.
+     */
+    public int size() {
+        return nextId.get();
+    }
+}
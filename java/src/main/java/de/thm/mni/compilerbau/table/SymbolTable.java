@@ -2,19 +2,46 @@ package de.thm.mni.compilerbau.table;
 
 import de.thm.mni.compilerbau.utils.SplError;
 
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Represents a symbol table for a definition scope in SPL.
  * Maps identifiers to the corresponding symbols.
+ * <p>
+ * The symbols are stored in insertion order in two arrays. They are found with an open addressing hash table over the
+ * ids the {@link IdentifierPool} hands out, so a lookup compares ints and allocates nothing. All identifiers entered
+ * into or looked up in a table must therefore come from the pool of the same compilation.
+ * <p>
+ * A table can be frozen and then shared, e.g. between compilations. Symbols are added to a frozen table by entering
+ * them into a {@link #copyOnWrite() copy}, which holds only the new symbols and refers to the frozen table for the rest.
  */
 public class SymbolTable {
-    private final Map<Identifier, Entry> entries = new HashMap<>();
+    private static final int INITIAL_CAPACITY = 8;
+
+    private Identifier[] names = new Identifier[INITIAL_CAPACITY];
+    private Entry[] entries = new Entry[INITIAL_CAPACITY];
+    private int size = 0;
+    /**
+     * The hash table over the ids of the pooled names, holding their index + 1 or 0 for free slots.
+     * Its length is a power of two and at least twice the number of names.
+     */
+    private int[] slots = new int[2 * INITIAL_CAPACITY];
+    private int shift = Integer.SIZE - Integer.numberOfTrailingZeros(2 * INITIAL_CAPACITY);
     private final SymbolTable upperLevel;
+    /**
+     * The frozen table of the same scope this table is a copy of or null.
+     */
+    private final SymbolTable base;
+    private boolean frozen = false;
 
     /**
      * Constructs a local table representing a local definition scope.
@@ -22,14 +49,41 @@ public class SymbolTable {
      * @param upperLevel The symbol table for the surrounding scope.
      */
     public SymbolTable(SymbolTable upperLevel) {
-        this.upperLevel = upperLevel;
+        this(upperLevel, null);
     }
 
     /**
      * Constructs an empty table with no surrounding scope.
      */
     public SymbolTable() {
-        this.upperLevel = null;
+        this(null, null);
+    }
+
+    private SymbolTable(SymbolTable upperLevel, SymbolTable base) {
+        this.upperLevel = upperLevel;
+        this.base = base;
+    }
+
+    /**
+     * Forbids entering further symbols into this table, so it can be shared between threads.
+     *
+     * @return This table.
+     */
+    public SymbolTable freeze() {
+        frozen = true;
+        return this;
+    }
+
+    /**
+     * Creates a table for the same scope that initially contains all symbols of this frozen table.
+     * The symbols entered into the copy are not visible in this table. Creating the copy does not copy any symbols.
+     *
+     * @return A new table for the same scope.
+     * @throws IllegalStateException If this table is not frozen.
+     */
+    public SymbolTable copyOnWrite() {
+        if (!frozen) throw new IllegalStateException("Only frozen tables can be copied on write");
+        return new SymbolTable(upperLevel, this);
     }
 
     /**
@@ -49,65 +103,136 @@ public class SymbolTable {
      * @param entry The entry for the new symbol.
      */
     public void enter(Identifier name, Entry entry) {
-        this.entries.putIfAbsent(name, entry);
+        if (frozen) throw new IllegalStateException("Can not enter a symbol into a frozen table");
+        if (lookupInScope(name) != null) return;
+
+        if (size == names.length) {
+            names = Arrays.copyOf(names, 2 * size);
+            entries = Arrays.copyOf(entries, 2 * size);
+        }
+        names[size] = name;
+        entries[size] = entry;
+        size++;
+
+        if (2 * size > slots.length) {
+            rehash();
+        } else {
+            insertSlot(size - 1);
+        }
     }
 
     /**
      * Inserts a new symbol into the table.
      * Throws an exception if a symbol with this name already exists in this scope.
-     * 
+     *
      * @param name  The name of the symbol that is entered.
      * @param entry The entry for the new symbol.
-     * @param error The exception to throw if a symbol with this name is already defined.
+     * @param error Creates the exception to throw if a symbol with this name is already defined.
+     *              It is only called in that case.
      * @throws SplError If a symbol with this name is already defined.
      */
-    public void enter(Identifier name, Entry entry, SplError error) {
-        if (this.entries.containsKey(name))
-            throw error;
+    public void enter(Identifier name, Entry entry, Supplier<SplError> error) {
+        if (lookupInScope(name) != null)
+            throw error.get();
 
         this.enter(name, entry);
     }
 
     /**
      * Looks for the symbol defined with the given name.
-     * Recursively looks in outer scopes if the name is not defined in this scope.
+     * Looks in outer scopes if the name is not defined in this scope.
      *
      * @param name The name of the symbol.
      * @return null if no symbol was found, the found symbol otherwise.
      */
     public Entry lookup(Identifier name) {
-        Entry entry = this.entries.get(name);
+        for (SymbolTable table = this; table != null; table = table.upperLevel) {
+            final Entry entry = table.lookupInScope(name);
+            if (entry != null) return entry;
+        }
+        return null;
+    }
 
-        if (entry != null) return entry;
-        if (upperLevel != null) return upperLevel.lookup(name);
+    /**
+     * Looks for the symbol defined with the given name in this scope only.
+     */
+    private Entry lookupInScope(Identifier name) {
+        for (SymbolTable table = this; table != null; table = table.base) {
+            final int index = table.indexOf(name);
+            if (index >= 0) return table.entries[index];
+        }
         return null;
     }
 
     /**
      * Looks for the symbol defined with the given name.
-     * Recursively looks in outer scopes if the name is not defined in this scope.
+     * Looks in outer scopes if the name is not defined in this scope.
      *
-     * @param name The name of the symbol.
+     * @param name  The name of the symbol.
+     * @param error Creates the exception to throw if there is no symbol with this name.
+     *              It is only called in that case.
      * @return The symbol belonging to this name.
      * @throws SplError If there is no symbol with this name.
-     * @see SymbolTable#find(Identifier)
+     * @see SymbolTable#lookup(Identifier)
      */
-    public Entry lookup(Identifier name, SplError error) {
-        return find(name).orElseThrow(() -> error);
+    public Entry lookup(Identifier name, Supplier<SplError> error) {
+        final Entry entry = lookup(name);
+        if (entry == null) throw error.get();
+        return entry;
     }
 
     /**
      * Tries to find the symbol defined with the given name.
      * If there is no symbol with that name in the current or any outer scope, {@link Optional#empty()} is returned.
+     * Prefer {@link #lookup(Identifier)} where a lookup is frequent, since this method allocates an {@link Optional}.
      *
      * @param name The name of the symbol.
      * @return The symbol belonging to this name or empty.
-     * @see SymbolTable#lookup(Identifier, SplError)
+     * @see SymbolTable#lookup(Identifier, Supplier)
      */
     public Optional<Entry> find(Identifier name) {
         return Optional.ofNullable(lookup(name));
     }
 
+    /**
+     * @return The number of symbols defined in this scope, not counting the symbols of outer scopes.
+     */
+    public int size() {
+        return base != null ? base.size() + size : size;
+    }
+
+    /**
+     * @return The index of the symbol with this name in this scope or -1 if there is none.
+     */
+    private int indexOf(Identifier name) {
+        final int mask = slots.length - 1;
+        for (int slot = slotOf(name.id()); ; slot = (slot + 1) & mask) {
+            final int index = slots[slot] - 1;
+            if (index < 0) return -1;
+            if (names[index] == name) return index;
+        }
+    }
+
+    /**
+     * Spreads the dense ids over the hash table by Fibonacci hashing.
+     */
+    private int slotOf(int id) {
+        return (id * 0x9E3779B9) >>> shift;
+    }
+
+    private void insertSlot(int index) {
+        final int mask = slots.length - 1;
+        int slot = slotOf(names[index].id());
+        while (slots[slot] != 0) slot = (slot + 1) & mask;
+        slots[slot] = index + 1;
+    }
+
+    private void rehash() {
+        slots = new int[2 * slots.length];
+        shift--;
+        for (int index = 0; index < size; index++) insertSlot(index);
+    }
+
     /**
      * Converts the table to a human-readable format.
      *
@@ -115,17 +240,38 @@ public class SymbolTable {
      * @return A human readable representation of the table contents.
      */
     public String toString(int level) {
+        return toString(level, name -> true);
+    }
+
+    /**
+     * Converts the table to a human-readable format, leaving out some symbols of the outer scopes.
+     * This shows the table as it was before the left out symbols were entered.
+     *
+     * @param level              The level of this scope. 0 for the most inner scope, +1 for each outer scope.
+     * @param visibleOuterSymbol Decides which symbols of the outer scopes are shown.
+     * @return A human readable representation of the table contents.
+     */
+    public String toString(int level, Predicate<Identifier> visibleOuterSymbol) {
+        return format(level, name -> true, visibleOuterSymbol);
+    }
+
+    private String format(int level, Predicate<Identifier> visibleSymbol, Predicate<Identifier> visibleOuterSymbol) {
         var string = String.format("  level %d\n", level);
 
-        if (this.entries.size() == 0) string += "    <empty>\n";
+        final var visibleSymbols = Stream.iterate(this, Objects::nonNull, table -> table.base)
+                .flatMap(table -> IntStream.range(0, table.size)
+                        .filter(index -> visibleSymbol.test(table.names[index]))
+                        .mapToObj(index -> Map.entry(table.names[index], table.entries[index])))
+                .sorted(Comparator.comparing(symbol -> symbol.getKey().toString()))
+                .toList();
+        if (visibleSymbols.size() == 0) string += "    <empty>\n";
         else {
-            string += this.entries.entrySet().stream()
-                    .sorted(Comparator.comparing(a -> a.getKey().toString()))
-                    .map(entry -> String.format("    %-15s --> %s\n", entry.getKey(), entry.getValue()))
+            string += visibleSymbols.stream()
+                    .map(symbol -> String.format("    %-15s --> %s\n", symbol.getKey(), symbol.getValue()))
                     .collect(Collectors.joining(""));
         }
 
-        if (upperLevel != null) string += upperLevel.toString(level + 1);
+        if (upperLevel != null) string += upperLevel.format(level + 1, visibleOuterSymbol, visibleOuterSymbol);
 
         return string;
     }
@@ -3,6 +3,11 @@ package de.thm.mni.compilerbau.types;
 /**
  * Represents array types in spl.
  * Is constructed each time an {@link de.thm.mni.compilerbau.absyn.ArrayTypeExpression} is encountered in the source code.
+ * <p>
+ * Types are compared by reference, which makes every array type expression in the source code a type of its own:
+ * Two arrays declared with structurally identical type expressions do not have the same type, only the uses of a
+ * type declared by name do. Array types must therefore not be shared between type expressions, e.g. by interning
+ * them by their base type and size, as this would change which programs are accepted.
  */
 public class ArrayType extends Type {
     public final Type baseType;
@@ -0,0 +1,116 @@
+package de.thm.mni.compilerbau.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs independent work items, e.g. the procedures of a program, in parallel on the common {@link ForkJoinPool}.
+ * <p>
+ * Failures are reported as if the items had been processed one after another: If several items fail, the exception of
+ * the first one in list order is thrown, no matter which one failed first in time. Items after a known failure are
+ * skipped, items before it are still processed because they could fail as well.
+ * <p>
+ * The items processed on other threads work for the {@link UsageMeter} of the calling thread, so their CPU time and
+ * allocations are measured like those of the caller.
+ * <p>
+ * The number of threads can be limited with the system property
+ * {@code java.util.concurrent.ForkJoinPool.common.parallelism}. With a parallelism of 1 every item is processed on the
+ * calling thread.
+ */
+public class Parallel {
+    private Parallel() {
+    }
+
+    /**
+     * Applies an action to every item.
+     *
+     * @param items  The items to process.
+     * @param action The action. It is called concurrently and must not modify state shared between items.
+     */
+    public static <T> void forEach(List<T> items, Consumer<? super T> action) {
+        map(items, item -> {
+            action.accept(item);
+            return null;
+        });
+    }
+
+    /**
+     * Applies a function to every item.
+     *
+     * @param items    The items to process.
+     * @param function The function. It is called concurrently and must not modify state shared between items.
+     * @return The results in the order of the items.
+     */
+    public static <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> function) {
+        final Object[] results = new Object[items.size()];
+        if (items.size() < 2 || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            for (int i = 0; i < results.length; i++) results[i] = function.apply(items.get(i));
+        } else {
+            final Batch<T> batch = new Batch<>(items, function, results);
+            ForkJoinPool.commonPool().invoke(batch.new Range(0, items.size()));
+            if (batch.firstFailure.get() < results.length) throw batch.failures[batch.firstFailure.get()];
+        }
+
+        @SuppressWarnings("unchecked")
+        final List<R> list = (List<R>) new ArrayList<>(Arrays.asList(results));
+        return list;
+    }
+
+    private static class Batch<T> {
+        private final List<T> items;
+        private final Function<? super T, ?> function;
+        private final Object[] results;
+        private final RuntimeException[] failures;
+        private final AtomicInteger firstFailure;
+        private final UsageMeter meter = UsageMeter.current();
+
+        private Batch(List<T> items, Function<? super T, ?> function, Object[] results) {
+            this.items = items;
+            this.function = function;
+            this.results = results;
+            this.failures = new RuntimeException[items.size()];
+            this.firstFailure = new AtomicInteger(items.size());
+        }
+
+        private void process(int index) {
+            if (index > firstFailure.get()) return;
+            final UsageMeter previous = UsageMeter.switchTo(meter);
+            try {
+                results[index] = function.apply(items.get(index));
+            } catch (RuntimeException e) {
+                failures[index] = e;
+                firstFailure.accumulateAndGet(index, Math::min);
+            } finally {
+                UsageMeter.switchTo(previous);
+            }
+        }
+
+        /**
+         * Splits the items in halves until every task processes a single item.
+         */
+        private class Range extends RecursiveAction {
+            private final int from, to;
+
+            private Range(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from == 1) {
+                    process(from);
+                    return;
+                }
+                final int middle = (from + to) >>> 1;
+                invokeAll(new Range(from, middle), new Range(middle, to));
+            }
+        }
+    }
+}
@@ -11,108 +11,125 @@ import de.thm.mni.compilerbau.types.Type;
  * Contains static methods that construct exceptions for specific errors.
  */
 public class SplError extends RuntimeException {
-    public final Position position;
+    /**
+     * The position of the error, encoded as described in {@link Position}.
+     */
+    public final long position;
     public final int errorCode;
 
-    private SplError(int errorCode, Position position, String message, Object... formatArgs) {
+    private SplError(int errorCode, long position, String message, Object... formatArgs) {
         super(String.format(message, formatArgs));
         this.errorCode = errorCode;
         this.position = position;
     }
 
-    public static SplError SyntaxError(Position position, String token) {
+    /**
+     * @return The line of the error or -1 if the error has no position.
+     */
+    public int line() {
+        return Position.line(position);
+    }
+
+    /**
+     * @return The column of the error or -1 if the error has no position.
+     */
+    public int column() {
+        return Position.column(position);
+    }
+
+    public static SplError SyntaxError(long position, String token) {
         return new SplError(100, position, "syntax error. Unexpected token '" + token + "'");
     }
 
-    public static SplError UndefinedType(Position position, Identifier name) {
+    public static SplError UndefinedType(long position, Identifier name) {
         return new SplError(101, position, "undefined type %s", name);
     }
 
-    public static SplError NotAType(Position position, Identifier name) {
+    public static SplError NotAType(long position, Identifier name) {
         return new SplError(102, position, "%s is not a type", name);
     }
 
-    public static SplError RedeclarationAsType(Position position, Identifier name) {
+    public static SplError RedeclarationAsType(long position, Identifier name) {
         return new SplError(103, position, "redeclaration of %s as type", name);
     }
 
-    public static SplError MustBeAReferenceParameter(Position position, Identifier name) {
+    public static SplError MustBeAReferenceParameter(long position, Identifier name) {
         return new SplError(104, position, "parameter %s must be a reference parameter", name);
     }
 
-    public static SplError RedeclarationAsProcedure(Position position, Identifier name) {
+    public static SplError RedeclarationAsProcedure(long position, Identifier name) {
         return new SplError(105, position, "redeclaration of %s as procedure", name);
     }
 
-    public static SplError RedeclarationAsParameter(Position position, Identifier name) {
+    public static SplError RedeclarationAsParameter(long position, Identifier name) {
         return new SplError(106, position, "redeclaration of %s as parameter", name);
     }
 
-    public static SplError RedeclarationAsVariable(Position position, Identifier name) {
+    public static SplError RedeclarationAsVariable(long position, Identifier name) {
         return new SplError(107, position, "redeclaration of %s as variable", name);
     }
 
-    public static SplError IllegalAssignment(Position position, Type left, Type right) {
+    public static SplError IllegalAssignment(long position, Type left, Type right) {
         return new SplError(108, position, "illegal assignment '<%s> := <%s>'", left, right);
     }
 
-    public static SplError IllegalAssignmentToArray(Position position) {
+    public static SplError IllegalAssignmentToArray(long position) {
         return new SplError(109, position, "illegal assignment to array.");
     }
 
-    public static SplError IfConditionMustBeBoolean(Position position, Type actual) {
+    public static SplError IfConditionMustBeBoolean(long position, Type actual) {
         return new SplError(110, position, "'if' test expression must be of type boolean: actual = %s", actual);
     }
 
-    public static SplError WhileConditionMustBeBoolean(Position position, Type actual) {
+    public static SplError WhileConditionMustBeBoolean(long position, Type actual) {
         return new SplError(111, position, "'while' test expression must be of type boolean: actual = %s", actual);
     }
 
-    public static SplError UndefinedProcedure(Position position, Identifier name) {
+    public static SplError UndefinedProcedure(long position, Identifier name) {
         return new SplError(112, position, "undefined procedure %s", name);
     }
 
-    public static SplError CallOfNonProcedure(Position position, Identifier name) {
+    public static SplError CallOfNonProcedure(long position, Identifier name) {
         return new SplError(113, position, "call of non-procedure %s", name);
     }
 
-    public static SplError ArgumentTypeMismatch(Position position, Identifier name, int argumentIndex, Type expected, Type actual) {
+    public static SplError ArgumentTypeMismatch(long position, Identifier name, int argumentIndex, Type expected, Type actual) {
         return new SplError(114, position, "procedure %s argument %d type mismatch: expected = %s, actual = %s", name, argumentIndex, expected, actual);
     }
 
-    public static SplError ArgumentMustBeAVariable(Position position, Identifier name, int argumentIndex) {
+    public static SplError ArgumentMustBeAVariable(long position, Identifier name, int argumentIndex) {
         return new SplError(115, position, "procedure %s argument %d must be a variable", name, argumentIndex);
     }
 
-    public static SplError TooFewArguments(Position position, Identifier name) {
+    public static SplError TooFewArguments(long position, Identifier name) {
         return new SplError(116, position, "procedure %s called with too few arguments", name);
     }
 
-    public static SplError TooManyArguments(Position position, Identifier name) {
+    public static SplError TooManyArguments(long position, Identifier name) {
         return new SplError(117, position, "procedure %s called with too many arguments", name);
     }
 
-    public static SplError NoSuchOperator(Position position, BinaryExpression.Operator operator, Type leftType, Type rightType){
+    public static SplError NoSuchOperator(long position, BinaryExpression.Operator operator, Type leftType, Type rightType){
         return new SplError(118, position, "There is no binary operator '<%s> %s <%s>'.", leftType, operator.operatorString(), rightType);
     }
 
-    public static SplError NoSuchOperator(Position position, UnaryExpression.Operator operator, Type rightType){
+    public static SplError NoSuchOperator(long position, UnaryExpression.Operator operator, Type rightType){
         return new SplError(119, position, "There is no unary operator '%s <%s>'.", operator.operatorString(), rightType);
     }
 
-    public static SplError UndefinedVariable(Position position, Identifier name) {
+    public static SplError UndefinedVariable(long position, Identifier name) {
         return new SplError(121, position, "undefined variable %s", name);
     }
 
-    public static SplError NotAVariable(Position position, Identifier name) {
+    public static SplError NotAVariable(long position, Identifier name) {
         return new SplError(122, position, "%s is not a variable", name);
     }
 
-    public static SplError IndexingNonArray(Position position) {
+    public static SplError IndexingNonArray(long position) {
         return new SplError(123, position, "illegal indexing a non-array");
     }
 
-    public static SplError IndexingWithNonInteger(Position position) {
+    public static SplError IndexingWithNonInteger(long position) {
         return new SplError(124, position, "illegal indexing with a non-integer");
     }
 
@@ -128,17 +145,39 @@ public class SplError extends RuntimeException {
         return new SplError(127, Position.ERROR_POSITION, "procedure 'main' must not have any parameters");
     }
 
-    public static SplError IllegalApostrophe(Position position) {
+    public static SplError IllegalApostrophe(long position) {
         return new SplError(99, position, "illegal use of apostrophe");
     }
 
-    public static SplError IllegalCharacter(Position position, char character) {
+    public static SplError IllegalCharacter(long position, char character) {
         return new SplError(99, position,
                 "Illegal character %s",
                 Character.isISOControl(character) ? "0x" + Integer.toString(character, 16) : "'" + character + "'");
     }
 
+    public static SplError IntegerLiteralOutOfRange(long position, String literal) {
+        return new SplError(99, position, "integer literal %s out of range", literal);
+    }
+
     public static SplError RegisterOverflow() {
         return new SplError(140, Position.ERROR_POSITION, "There are not enough registers to run this program!");
     }
+
+    /**
+     * Reports an unexpected failure of the compiler itself, which is not caused by an error in the program.
+     *
+     * @param cause The exception thrown by the failing phase.
+     */
+    public static SplError InternalError(RuntimeException cause) {
+        final SplError error = new SplError(1, Position.ERROR_POSITION, "internal compiler error: %s", cause);
+        error.initCause(cause);
+        return error;
+    }
+
+    /**
+     * Recreates an error that was reported by another compiler process, e.g. the compile server.
+     */
+    public static SplError Forwarded(int errorCode, long position, String message) {
+        return new SplError(errorCode, position, "%s", message);
+    }
 }
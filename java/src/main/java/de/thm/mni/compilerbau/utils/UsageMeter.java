@@ -0,0 +1,101 @@
+package de.thm.mni.compilerbau.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the CPU time and the heap allocations of work that may be spread over several threads.
+ * <p>
+ * The JVM only measures these per thread. Each thread therefore charges its usage to the meter it is currently
+ * working for: Whenever a thread {@link #switchTo(UsageMeter) switches} to another meter, the usage since the last
+ * switch is added to the meter it worked for until then. {@link Parallel} lets the items it processes on other threads
+ * work for the meter of the calling thread, so the usage of a phase includes the work it hands to the common pool.
+ * Nothing is counted twice, even if a thread helps with other items while it waits for its own ones.
+ */
+public final class UsageMeter {
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private static final ThreadLocal<Account> accounts = ThreadLocal.withInitial(Account::new);
+
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    /**
+     * The usage of a thread that is not charged yet.
+     */
+    private static class Account {
+        private UsageMeter meter = null;
+        private long cpuStart;
+        private long allocationStart;
+
+        /**
+         * Charges the usage since the last switch and lets the thread work for another meter.
+         *
+         * @return The meter the thread worked for until now.
+         */
+        private UsageMeter switchTo(UsageMeter next) {
+            final long cpu = currentThreadCpuTime();
+            final long allocation = currentThreadAllocatedBytes();
+            final UsageMeter previous = meter;
+            if (previous != null) {
+                previous.cpuNanos.add(cpu - cpuStart);
+                previous.allocatedBytes.add(allocation - allocationStart);
+            }
+            meter = next;
+            cpuStart = cpu;
+            allocationStart = allocation;
+            return previous;
+        }
+    }
+
+    /**
+     * @return The CPU time of the current thread in nanoseconds or -1 if it can not be measured.
+     */
+    public static long currentThreadCpuTime() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * @return The number of bytes the current thread allocated so far or -1 if it can not be measured.
+     */
+    public static long currentThreadAllocatedBytes() {
+        if (threads instanceof com.sun.management.ThreadMXBean sunThreads && sunThreads.isThreadAllocatedMemoryEnabled()) {
+            return sunThreads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * @return The meter the current thread works for or null.
+     */
+    public static UsageMeter current() {
+        return accounts.get().meter;
+    }
+
+    /**
+     * Lets the current thread work for a meter. The usage of the thread so far is charged to the meter it worked for
+     * until now. Nothing is measured if the thread already works for the given meter.
+     *
+     * @param meter The meter to charge the following usage of the thread to or null to charge it to none.
+     * @return The meter the thread worked for until now, which it should switch back to when it is done.
+     */
+    public static UsageMeter switchTo(UsageMeter meter) {
+        final Account account = accounts.get();
+        return account.meter == meter ? meter : account.switchTo(meter);
+    }
+
+    /**
+     * @return The CPU time charged to this meter in nanoseconds or -1 if the JVM can not measure it.
+     */
+    public long cpuNanos() {
+        return currentThreadCpuTime() < 0 ? -1 : cpuNanos.sum();
+    }
+
+    /**
+     * @return The number of bytes charged to this meter or -1 if the JVM can not measure it.
+     */
+    public long allocatedBytes() {
+        return currentThreadAllocatedBytes() < 0 ? -1 : allocatedBytes.sum();
+    }
+}